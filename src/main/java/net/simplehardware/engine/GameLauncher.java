@@ -1,5 +1,13 @@
 package net.simplehardware.engine;
 
+import net.simplehardware.engine.batch.BatchOptions;
+import net.simplehardware.engine.batch.BatchRunner;
+import net.simplehardware.engine.worker.GameWorker;
+import net.simplehardware.engine.worker.WorkerOptions;
+
+import java.util.Arrays;
+import java.util.List;
+
 public class GameLauncher {
 
     public static void main(String[] args) {
@@ -8,19 +16,77 @@ public class GameLauncher {
             System.exit(1);
         }
 
+        List<String> options = Arrays.asList(args);
         try {
-            launchServer();
-        } catch (Exception e) {
+            if (options.contains("--batch")) {
+                runBatch(BatchOptions.parse(args));
+                return;
+            }
+            if (options.contains("--worker")) {
+                launchWorker(WorkerOptions.parse(args));
+                return;
+            }
+        } catch (IllegalArgumentException e) {
             System.err.println("Error: " + e.getMessage());
             printUsage();
             System.exit(1);
         }
+
+        // Server mode stays the default, --server is accepted for clarity
+        launchServer();
     }
 
     private static void printUsage() {
+        System.out.println("Usage: java -jar MazeRunner.jar --server");
         System.out.println(
-                "Usage: java -jar MazeRunner.jar --map \"path/to/file\" --players <count> \"path/to/player/1\" ... --max-turns <count> --randomSpawn <0|1> --level <int> [--server]");
-        System.out.println("  --server: Launch server mode for online competitive play");
+                "       java -jar MazeRunner.jar --batch --map \"path/to/file\" --players <count> \"path/to/player/1\" ... --max-turns <count> --randomSpawn <0|1> --level <int>");
+        System.out.println("  --server: Launch server mode for online competitive play (the default)");
+        System.out.println("  --worker <url> --token <token>: Run games for a server with game.workers.remote enabled");
+        System.out.println("                [--slots <count>] games at once (default 1), [--name <name>], [--work-dir <dir>]");
+        System.out.println("  --batch: Run games headless without server and database, with the options below");
+        System.out.println("  --map: Maze file or directory of maze files, may be repeated");
+        System.out.println("  --games <count>: Games per maze (default 1)");
+        System.out.println("  --threads <count>: Games run in parallel (default: number of cores)");
+        System.out.println("  --solo: Each player plays every maze on its own instead of all together");
+        System.out.println("  --simultaneous: All players move at once each turn");
+        System.out.println("  --timeout <ms> / --first-timeout <ms>: Turn time limits (default 500 / 1000)");
+        System.out.println("  --timebank <ms>: Reserve per player for answers over the turn limit (default 0, off)");
+        System.out.println("  --in-process: Run trusted bots inside this JVM instead of sandboxed processes,");
+        System.out.println("                a player may also be class:<name> of an InProcessPlayer.Bot implementation");
+        System.out.println("  --replays <dir>: Write a viewer replay for every game");
+        System.out.println("  --verbose: Print turn logs of every game");
+    }
+
+    /**
+     * Run games headless without server and database, then print aggregate results
+     */
+    private static void runBatch(BatchOptions options) {
+        BatchRunner runner = new BatchRunner(options, System.out);
+        long start = System.currentTimeMillis();
+        try {
+            List<BatchRunner.GameOutcome> outcomes = runner.run();
+            runner.printSummary(outcomes, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            System.err.println("Batch error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Run games for a remote server until the process is stopped
+     */
+    private static void launchWorker(WorkerOptions options) {
+        try {
+            GameWorker worker = new GameWorker(options);
+            Runtime.getRuntime().addShutdownHook(new Thread(worker::shutdown));
+            worker.run();
+        } catch (Exception e) {
+            System.err.println("Worker error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
     }
 
     /**
@@ -0,0 +1,105 @@
+package net.simplehardware.engine.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line options of the headless batch runner
+ */
+public class BatchOptions {
+    public List<File> mapFiles = new ArrayList<>();
+    public List<String> playerJars = new ArrayList<>();
+    public int maxTurns = 5000;
+    public boolean randomSpawn = false;
+    public int leagueLevel = 5;
+    public int games = 1;
+    public int threads = Runtime.getRuntime().availableProcessors();
+    public boolean solo = false;
+    public boolean simultaneousTurns = false;
+    public boolean inProcess = false;
+    public long turnTimeoutMs = 500;
+    public long firstTurnTimeoutMs = 1000;
+    public long timeBankMs = 0;
+    public String replayDirectory = null;
+    public boolean verbose = false;
+
+    /**
+     * Parse the documented launcher arguments
+     *
+     * @throws IllegalArgumentException if an option is unknown or malformed
+     */
+    public static BatchOptions parse(String[] args) {
+        BatchOptions options = new BatchOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--map" -> options.addMaps(new File(value(args, ++i, arg)));
+                case "--players" -> {
+                    int count = intValue(args, ++i, arg);
+                    for (int p = 0; p < count; p++) {
+                        options.playerJars.add(value(args, ++i, arg));
+                    }
+                }
+                case "--max-turns" -> options.maxTurns = intValue(args, ++i, arg);
+                case "--randomSpawn" -> options.randomSpawn = intValue(args, ++i, arg) == 1;
+                case "--level" -> options.leagueLevel = intValue(args, ++i, arg);
+                case "--games" -> options.games = intValue(args, ++i, arg);
+                case "--threads" -> options.threads = intValue(args, ++i, arg);
+                case "--timeout" -> options.turnTimeoutMs = intValue(args, ++i, arg);
+                case "--first-timeout" -> options.firstTurnTimeoutMs = intValue(args, ++i, arg);
+                case "--timebank" -> options.timeBankMs = intValue(args, ++i, arg);
+                case "--replays" -> options.replayDirectory = value(args, ++i, arg);
+                case "--solo" -> options.solo = true;
+                case "--simultaneous" -> options.simultaneousTurns = true;
+                case "--in-process" -> options.inProcess = true;
+                case "--verbose" -> options.verbose = true;
+                case "--batch" -> {
+                }
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        if (options.mapFiles.isEmpty()) {
+            throw new IllegalArgumentException("No maps given, use --map");
+        }
+        if (options.playerJars.isEmpty()) {
+            throw new IllegalArgumentException("No players given, use --players");
+        }
+        if (options.games < 1 || options.threads < 1) {
+            throw new IllegalArgumentException("--games and --threads must be at least 1");
+        }
+        return options;
+    }
+
+    private void addMaps(File path) {
+        if (path.isDirectory()) {
+            File[] files = path.listFiles((dir, name) -> name.endsWith(".json"));
+            if (files != null) {
+                Arrays.sort(files);
+                mapFiles.addAll(Arrays.asList(files));
+            }
+        } else if (path.isFile()) {
+            mapFiles.add(path);
+        } else {
+            throw new IllegalArgumentException("Map not found: " + path);
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int intValue(String[] args, int index, String option) {
+        String value = value(args, index, option);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package net.simplehardware.engine.batch;
+
+import net.simplehardware.engine.core.BotProcessPool;
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.core.GameLog;
+import net.simplehardware.engine.core.LatencyHistogram;
+import net.simplehardware.engine.game.CompiledMaze;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.viewer.WebViewerExporter;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.models.MazeInfoData;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many games headless and in parallel, without the server or database.
+ * Every map is played {@code games} times, either by all players together or, in solo mode,
+ * by each player on its own. Results are aggregated per bot jar.
+ */
+public class BatchRunner {
+    private final BatchOptions options;
+    private final PrintStream out;
+    private final AtomicInteger completedGames = new AtomicInteger();
+    private BotProcessPool botPool;
+
+    public record PlayerOutcome(String jar, int playerId, boolean finished, int score, int formsCollected,
+                                int formsRequired, LatencyHistogram latency) {
+    }
+
+    /**
+     * @param wallMs      whole game including bot startup and replay export
+     * @param engineNanos time spent in {@link GameEngine#runGame()} only
+     */
+    public record GameOutcome(String mapName, int round, List<PlayerOutcome> players, int steps, long wallMs,
+                              long engineNanos, String error) {
+    }
+
+    public BatchRunner(BatchOptions options, PrintStream out) {
+        this.options = options;
+        this.out = out;
+    }
+
+    public List<GameOutcome> run() throws IOException, InterruptedException {
+        if (options.replayDirectory != null) {
+            new File(options.replayDirectory).mkdirs();
+        }
+
+        List<Callable<GameOutcome>> tasks = new ArrayList<>();
+        for (File mapFile : options.mapFiles) {
+            CompiledMaze maze;
+            try (FileReader reader = new FileReader(mapFile)) {
+                maze = CompiledMaze.compile(new Gson().fromJson(reader, MazeInfoData.class));
+            }
+            for (int round = 1; round <= options.games; round++) {
+                if (options.solo) {
+                    for (String jar : options.playerJars) {
+                        tasks.add(gameTask(maze, round, List.of(jar), tasks.size()));
+                    }
+                } else {
+                    tasks.add(gameTask(maze, round, options.playerJars, tasks.size()));
+                }
+            }
+        }
+
+        int playersPerGame = options.solo ? 1 : options.playerJars.size();
+        botPool = new BotProcessPool(options.inProcess ? 0 : options.threads * playersPerGame);
+        botPool.start();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        out.println("Running " + tasks.size() + " games on " + options.threads + " threads");
+
+        List<GameOutcome> outcomes = new ArrayList<>();
+        try {
+            for (Future<GameOutcome> future : executor.invokeAll(tasks)) {
+                try {
+                    outcomes.add(future.get());
+                } catch (ExecutionException e) {
+                    System.err.println("Game failed: " + e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            botPool.shutdown();
+        }
+        return outcomes;
+    }
+
+    private Callable<GameOutcome> gameTask(CompiledMaze maze, int round, List<String> jars, int index) {
+        return () -> {
+            GameOutcome outcome = runGame(maze, round, jars, index);
+            int done = completedGames.incrementAndGet();
+            synchronized (out) {
+                out.println("[" + done + "] " + outcome.mapName() + " #" + round + ": "
+                        + (outcome.error() != null ? "ERROR " + outcome.error() : describe(outcome)));
+            }
+            return outcome;
+        };
+    }
+
+    private GameOutcome runGame(CompiledMaze maze, int round, List<String> jars, int index) {
+        long start = System.nanoTime();
+        long engineNanos = 0;
+        try {
+            GameEngine.GameConfig config = new GameEngine.GameConfig();
+            config.debug = 0;
+            config.turnInfo = options.verbose ? 1 : 0;
+            config.logging = 0;
+            config.leagueLevel = options.leagueLevel;
+            config.maxTurns = options.maxTurns;
+            config.turnTimeoutMs = options.turnTimeoutMs;
+            config.firstTurnTimeoutMs = options.firstTurnTimeoutMs;
+            config.timeBankMs = options.timeBankMs;
+            config.simultaneousTurns = options.simultaneousTurns ? 1 : 0;
+            config.inProcessBots = options.inProcess ? 1 : 0;
+            config.randomSpawn = options.randomSpawn ? 1 : 0;
+            PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+            config.log = new GameLog("g" + index, options.verbose ? System.out : discard,
+                    options.verbose ? System.err : discard);
+            config.botPool = botPool;
+
+            GameEngine engine = new GameEngine(new Maze(maze), jars, config);
+            try {
+                engine.initialize();
+                long engineStart = System.nanoTime();
+                engine.runGame();
+                engineNanos = System.nanoTime() - engineStart;
+            } finally {
+                engine.shutdown();
+            }
+
+            List<GameState> history = engine.getGameHistory();
+            GameState finalState = history.getLast();
+            List<PlayerOutcome> players = new ArrayList<>();
+            for (int i = 0; i < jars.size(); i++) {
+                GameState.PlayerSnapshot snapshot = finalState.getPlayers().get(i + 1);
+                if (snapshot != null) {
+                    players.add(new PlayerOutcome(jars.get(i), snapshot.id(), snapshot.finished(), snapshot.score(),
+                            snapshot.formsCollected(), snapshot.formsRequired(), engine.getLatencies().get(i + 1)));
+                }
+            }
+
+            if (options.replayDirectory != null) {
+                String fileName = sanitize(maze.getName()) + "_" + round + "_" + index + ".json.gz";
+                WebViewerExporter.exportToJSON(history, maze.getName(),
+                        new File(options.replayDirectory, fileName).getPath());
+            }
+
+            return new GameOutcome(maze.getName(), round, players, finalState.getTurnNumber(), elapsedMs(start),
+                    engineNanos, null);
+        } catch (Exception e) {
+            return new GameOutcome(maze.getName(), round, List.of(), 0, elapsedMs(start), engineNanos,
+                    e.toString());
+        }
+    }
+
+    /**
+     * Print completion rate, steps and per-turn latency per bot and over all games
+     */
+    public void printSummary(List<GameOutcome> outcomes, long wallMs) {
+        Map<String, List<PlayerOutcome>> byJar = new LinkedHashMap<>();
+        Map<String, List<GameOutcome>> gamesByJar = new LinkedHashMap<>();
+        long engineNanos = 0;
+        long steps = 0;
+        int errors = 0;
+        for (GameOutcome outcome : outcomes) {
+            if (outcome.error() != null) {
+                errors++;
+                continue;
+            }
+            engineNanos += outcome.engineNanos();
+            steps += outcome.steps();
+            for (PlayerOutcome player : outcome.players()) {
+                byJar.computeIfAbsent(player.jar(), k -> new ArrayList<>()).add(player);
+                gamesByJar.computeIfAbsent(player.jar(), k -> new ArrayList<>()).add(outcome);
+            }
+        }
+
+        out.println();
+        out.println("=== Batch Results ===");
+        for (Map.Entry<String, List<PlayerOutcome>> entry : byJar.entrySet()) {
+            List<PlayerOutcome> results = entry.getValue();
+            List<GameOutcome> games = gamesByJar.get(entry.getKey());
+            int finished = 0;
+            long finishedSteps = 0;
+            int minSteps = Integer.MAX_VALUE;
+            long score = 0;
+            LatencyHistogram latency = new LatencyHistogram();
+            double firstTurnMs = 0;
+            int firstTurns = 0;
+            for (int i = 0; i < results.size(); i++) {
+                score += results.get(i).score();
+                LatencyHistogram gameLatency = results.get(i).latency();
+                if (gameLatency != null) {
+                    latency.merge(gameLatency);
+                    if (gameLatency.getFirstTurnMs() >= 0) {
+                        firstTurnMs += gameLatency.getFirstTurnMs();
+                        firstTurns++;
+                    }
+                }
+                if (results.get(i).finished()) {
+                    finished++;
+                    int gameSteps = games.get(i).steps();
+                    finishedSteps += gameSteps;
+                    minSteps = Math.min(minSteps, gameSteps);
+                }
+            }
+            out.println(new File(entry.getKey()).getName() + ":");
+            out.println(String.format("  Completed: %d/%d (%.1f%%)", finished, results.size(),
+                    100.0 * finished / results.size()));
+            if (finished > 0) {
+                out.println(String.format("  Steps: avg %.1f, best %d", (double) finishedSteps / finished, minSteps));
+            }
+            out.println(String.format("  Avg score: %.1f", (double) score / results.size()));
+            out.println(String.format("  Latency: first turn avg %.2f ms, p50 %.2f, p90 %.2f, p99 %.2f, max %.2f ms, %d timeouts",
+                    firstTurns > 0 ? firstTurnMs / firstTurns : 0.0, latency.getPercentileMs(50),
+                    latency.getPercentileMs(90), latency.getPercentileMs(99), latency.getMaxMs(),
+                    latency.getTimeouts()));
+        }
+
+        int played = outcomes.size() - errors;
+        out.println("Games: " + played + (errors > 0 ? " (" + errors + " failed)" : ""));
+        out.println(String.format("Wall time: %.1f s (%.0f games/hour)", wallMs / 1000.0,
+                wallMs > 0 ? played * 3_600_000.0 / wallMs : 0.0));
+        if (steps > 0) {
+            out.println(String.format("Avg engine time per turn: %.2f ms", engineNanos / 1e6 / steps));
+        }
+    }
+
+    private static String describe(GameOutcome outcome) {
+        StringBuilder line = new StringBuilder(outcome.steps() + " steps, " + outcome.wallMs() + " ms");
+        for (PlayerOutcome player : outcome.players()) {
+            line.append(", P").append(player.playerId()).append(player.finished() ? " FINISHED" : " open")
+                    .append(" (").append(player.score()).append(")");
+        }
+        return line.toString();
+    }
+
+    private static String sanitize(String name) {
+        return name == null ? "maze" : name.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
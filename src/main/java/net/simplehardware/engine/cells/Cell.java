@@ -1,10 +1,17 @@
 package net.simplehardware.engine.cells;
 
+import net.simplehardware.engine.game.Maze;
+
+/**
+ * View of a single maze cell; the state itself lives in the primitive arrays of {@link Maze}
+ */
 public abstract class Cell {
+    protected final Maze maze;
     protected final int x;
     protected final int y;
 
-    public Cell(int x, int y) {
+    public Cell(Maze maze, int x, int y) {
+        this.maze = maze;
         this.x = x;
         this.y = y;
     }
@@ -20,17 +27,21 @@ public abstract class Cell {
     /**
      * Check if this cell is walkable
      */
-    public abstract boolean isWalkable();
+    public boolean isWalkable() {
+        return maze.isWalkable(x, y);
+    }
 
     /**
      * Get the cell type name for protocol output
      */
-    public abstract String getCellType();
+    public String getCellType() {
+        return maze.getCellType(x, y);
+    }
 
     /**
      * Get detailed cell information for protocol output
      */
     public String getCellDetails() {
-        return "";
+        return maze.getCellDetails(x, y);
     }
 }
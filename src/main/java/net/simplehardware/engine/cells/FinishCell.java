@@ -1,35 +1,17 @@
 package net.simplehardware.engine.cells;
 
-public class FinishCell extends Cell {
-    private final int playerId;
-    private int requiredFormCount;
-
-    public FinishCell(int x, int y, int playerId) {
-        super(x, y);
-        this.playerId = playerId;
-        this.requiredFormCount = 0;
-    }
-
-    @Override
-    public boolean isWalkable() {
-        return true;
-    }
+import net.simplehardware.engine.game.Maze;
 
-    @Override
-    public String getCellType() {
-        return "FINISH";
-    }
-
-    @Override
-    public String getCellDetails() {
-        return playerId + " " + requiredFormCount;
+public class FinishCell extends Cell {
+    public FinishCell(Maze maze, int x, int y) {
+        super(maze, x, y);
     }
 
     public int getPlayerId() {
-        return playerId;
+        return maze.getFinishOwner(x, y);
     }
-    
+
     public void setRequiredFormCount(int count) {
-        this.requiredFormCount = count;
+        maze.setRequiredFormCount(getPlayerId(), count);
     }
 }
@@ -1,63 +1,37 @@
 package net.simplehardware.engine.cells;
 
+import net.simplehardware.engine.game.Maze;
+
 /**
  * Walkable floor cell that can contain forms, sheets, or be empty
  */
 public class FloorCell extends Cell {
-    private Character form;
-    private Integer formOwner;
-    private boolean hasSheet;
-
-    public FloorCell(int x, int y) {
-        super(x, y);
-    }
-
-    @Override
-    public boolean isWalkable() {
-        return true;
-    }
-
-    @Override
-    public String getCellType() {
-        if (form != null) {
-            return "FORM";
-        } else if (hasSheet) {
-            return "SHEET";
-        }
-        return "FLOOR";
-    }
-
-    @Override
-    public String getCellDetails() {
-        if (form != null && formOwner != null) {
-            return formOwner + " " + (form - 'A' + 1);
-        }
-        return "";
+    public FloorCell(Maze maze, int x, int y) {
+        super(maze, x, y);
     }
 
     public Character getForm() {
-        return form;
+        char form = maze.getForm(x, y);
+        return form != 0 ? form : null;
     }
 
     public void setForm(Character form, int playerId) {
-        this.form = form;
-        this.formOwner = playerId;
+        maze.setForm(x, y, form, playerId);
     }
 
     public void removeForm() {
-        this.form = null;
-        this.formOwner = null;
+        maze.removeForm(x, y);
     }
 
     public Integer getFormOwner() {
-        return formOwner;
+        return maze.getForm(x, y) != 0 ? maze.getFormOwner(x, y) : null;
     }
 
     public boolean hasSheet() {
-        return hasSheet;
+        return maze.hasSheet(x, y);
     }
 
     public void setSheet(boolean hasSheet) {
-        this.hasSheet = hasSheet;
+        maze.setSheet(x, y, hasSheet);
     }
 }
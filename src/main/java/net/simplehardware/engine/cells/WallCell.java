@@ -1,17 +1,9 @@
 package net.simplehardware.engine.cells;
 
-public class WallCell extends Cell {
-    public WallCell(int x, int y) {
-        super(x, y);
-    }
+import net.simplehardware.engine.game.Maze;
 
-    @Override
-    public boolean isWalkable() {
-        return false;
-    }
-
-    @Override
-    public String getCellType() {
-        return "WALL";
+public class WallCell extends Cell {
+    public WallCell(Maze maze, int x, int y) {
+        super(maze, x, y);
     }
 }
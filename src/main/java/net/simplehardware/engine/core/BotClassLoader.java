@@ -0,0 +1,160 @@
+package net.simplehardware.engine.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Loads an in-process bot jar with its standard streams redirected to its own {@link BotSystem}.
+ * Every class of the jar is rewritten on load: field references to {@code System.in/out/err} and calls
+ * of {@code System.setIn/setOut/setErr} are pointed at this loader's copy of {@link BotSystem}.
+ * Only constant pool entries change, the bytecode itself is left alone.
+ * JDK code that writes to System.err on its own, e.g. {@code Throwable.printStackTrace()}
+ * without arguments, still reaches the real stream.
+ */
+final class BotClassLoader extends URLClassLoader {
+    private static final String SYSTEM = "java/lang/System";
+    private static final String SHIM = BotSystem.class.getName().replace('.', '/');
+    private static final Set<String> STREAM_FIELDS = Set.of("in", "out", "err");
+    private static final Set<String> STREAM_SETTERS = Set.of("setIn", "setOut", "setErr");
+
+    private static final int UTF8 = 1;
+    private static final int CLASS = 7;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    BotClassLoader(File jarFile) throws MalformedURLException {
+        super(new URL[] { jarFile.toURI().toURL() }, ClassLoader.getPlatformClassLoader());
+    }
+
+    /**
+     * Hand the bot its streams, before any of its classes runs
+     */
+    void setStreams(InputStream in, PrintStream out, PrintStream err) throws ReflectiveOperationException {
+        Class<?> shim = loadClass(BotSystem.class.getName());
+        shim.getMethod("setIn", InputStream.class).invoke(null, in);
+        shim.getMethod("setOut", PrintStream.class).invoke(null, out);
+        shim.getMethod("setErr", PrintStream.class).invoke(null, err);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        String resource = name.replace('.', '/') + ".class";
+        byte[] bytes;
+        try {
+            if (name.equals(BotSystem.class.getName())) {
+                bytes = readAll(BotClassLoader.class.getClassLoader().getResourceAsStream(resource));
+            } else {
+                URL url = findResource(resource);
+                bytes = url != null ? redirectStreams(readAll(url.openStream())) : null;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+        if (bytes == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        if (in == null) {
+            return null;
+        }
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Point stream references to System at the shim, appending its class entry to the constant pool
+     *
+     * @return the class file, unchanged if it does not touch the standard streams
+     */
+    static byte[] redirectStreams(byte[] classFile) {
+        int count = u2(classFile, 8);
+        int[] offsets = new int[count];
+        int position = 10;
+        for (int index = 1; index < count; index++) {
+            offsets[index] = position;
+            int tag = classFile[position] & 0xFF;
+            position += switch (tag) {
+                case UTF8 -> 3 + u2(classFile, position + 1);
+                case 3, 4, FIELD_REF, METHOD_REF, 11, NAME_AND_TYPE, 17, 18 -> 5;
+                case 5, 6 -> 9;
+                case CLASS, 8, 16, 19, 20 -> 3;
+                case 15 -> 4;
+                default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            };
+            if (tag == 5 || tag == 6) {
+                index++; // Longs and doubles take two slots
+            }
+        }
+        int poolEnd = position;
+
+        byte[] patched = null;
+        int shimIndex = count + 1;
+        for (int index = 1; index < count; index++) {
+            int offset = offsets[index];
+            int tag = classFile[offset] & 0xFF;
+            if (tag != FIELD_REF && tag != METHOD_REF) {
+                continue;
+            }
+            int owner = offsets[u2(classFile, offset + 1)];
+            if (!SYSTEM.equals(utf8(classFile, offsets, u2(classFile, owner + 1)))) {
+                continue;
+            }
+            String member = utf8(classFile, offsets, u2(classFile, offsets[u2(classFile, offset + 3)] + 1));
+            if (tag == FIELD_REF ? STREAM_FIELDS.contains(member) : STREAM_SETTERS.contains(member)) {
+                if (patched == null) {
+                    patched = Arrays.copyOf(classFile, classFile.length);
+                }
+                patched[offset + 1] = (byte) (shimIndex >> 8);
+                patched[offset + 2] = (byte) shimIndex;
+            }
+        }
+        if (patched == null) {
+            return classFile;
+        }
+        if (count + 2 > 0xFFFF) {
+            throw new IllegalArgumentException("Constant pool full");
+        }
+
+        // New entries: #count = Utf8 shim name, #count+1 = Class #count
+        byte[] name = SHIM.getBytes(StandardCharsets.UTF_8);
+        byte[] entries = new byte[3 + name.length + 3];
+        entries[0] = UTF8;
+        entries[1] = (byte) (name.length >> 8);
+        entries[2] = (byte) name.length;
+        System.arraycopy(name, 0, entries, 3, name.length);
+        entries[3 + name.length] = CLASS;
+        entries[4 + name.length] = (byte) (count >> 8);
+        entries[5 + name.length] = (byte) count;
+
+        byte[] result = new byte[classFile.length + entries.length];
+        System.arraycopy(patched, 0, result, 0, poolEnd);
+        System.arraycopy(entries, 0, result, poolEnd, entries.length);
+        System.arraycopy(patched, poolEnd, result, poolEnd + entries.length, classFile.length - poolEnd);
+        result[8] = (byte) ((count + 2) >> 8);
+        result[9] = (byte) (count + 2);
+        return result;
+    }
+
+    private static String utf8(byte[] classFile, int[] offsets, int index) {
+        int offset = offsets[index];
+        // Modified UTF-8, identical to UTF-8 for the ASCII names compared here
+        return new String(classFile, offset + 3, u2(classFile, offset + 1), StandardCharsets.UTF_8);
+    }
+
+    private static int u2(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 8 | bytes[offset + 1] & 0xFF;
+    }
+}
@@ -0,0 +1,97 @@
+package net.simplehardware.engine.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Entry point of a bot JVM. The JVM is started ahead of time with the security
+ * policy applied and idles until the engine sends the bot jar to run, which is
+ * then loaded into a fresh classloader that cannot see the engine classes.
+ */
+public final class BotLauncher {
+    static final String LOAD_COMMAND = "LOAD ";
+    /**
+     * Written to stdout once the bot has read its init lines and waits for the first turn
+     */
+    static final String READY_LINE = "#LAUNCHER READY";
+
+    private BotLauncher() {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        String command = readCommand(System.in);
+        if (command == null || !command.startsWith(LOAD_COMMAND)) {
+            System.err.println("Bot launcher: expected '" + LOAD_COMMAND + "<jar>', got: " + command);
+            System.exit(2);
+            return;
+        }
+
+        File jarFile = new File(command.substring(LOAD_COMMAND.length()));
+        String mainClassName = readMainClass(jarFile);
+        if (mainClassName == null) {
+            System.err.println("Bot launcher: no Main-Class in " + jarFile);
+            System.exit(3);
+            return;
+        }
+
+        URLClassLoader loader = new URLClassLoader(new URL[] { jarFile.toURI().toURL() },
+                ClassLoader.getPlatformClassLoader());
+        Thread.currentThread().setContextClassLoader(loader);
+
+        PrintStream stdout = System.out;
+        System.setIn(new ReadySignalInputStream(System.in, () -> {
+            stdout.println(READY_LINE);
+            stdout.flush();
+        }));
+
+        Class<?> mainClass = Class.forName(mainClassName, true, loader);
+        Method main = mainClass.getMethod("main", String[].class);
+        try {
+            main.invoke(null, (Object) new String[0]);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Read the launcher command byte by byte so that anything the engine already
+     * sent after it stays buffered in System.in for the bot
+     */
+    private static String readCommand(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    static String readMainClass(File jarFile) throws IOException {
+        try (JarFile jar = new JarFile(jarFile)) {
+            Manifest manifest = jar.getManifest();
+            if (manifest == null) {
+                return null;
+            }
+            return manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+        }
+    }
+}
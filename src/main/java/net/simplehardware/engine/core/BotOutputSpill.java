@@ -0,0 +1,68 @@
+package net.simplehardware.engine.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Complete stdout and stderr of all bots of one game, written to a file as it arrives.
+ * The replay only keeps the end of each bot's output per turn, see {@link OutputRing}.
+ * Lines look like {@code 12 P1 out| text}, the file is gzip compressed if its name ends with .gz.
+ * Write errors are reported once and the rest of the output is dropped, the game goes on.
+ * Once the size limit is reached a last marker line is written and further output is dropped too.
+ */
+public class BotOutputSpill implements Closeable {
+    private final String path;
+    private final Writer out;
+    private final long maxChars;
+    private long written;
+    private volatile int turn;
+    private boolean failed;
+
+    /**
+     * @param maxChars chars of output written before the rest is dropped, 0 for no limit
+     */
+    public BotOutputSpill(String path, long maxChars) throws IOException {
+        this.path = path;
+        this.maxChars = maxChars;
+        OutputStream file = new FileOutputStream(path);
+        if (path.endsWith(".gz")) {
+            file = new GZIPOutputStream(file, 64 * 1024);
+        }
+        this.out = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * Turn the following lines are tagged with
+     */
+    public void setTurn(int turn) {
+        this.turn = turn;
+    }
+
+    public synchronized void write(int playerId, boolean error, String line) {
+        if (failed) {
+            return;
+        }
+        try {
+            String tag = turn + " P" + playerId + (error ? " err| " : " out| ");
+            written += tag.length() + line.length() + 1;
+            if (maxChars > 0 && written > maxChars) {
+                failed = true;
+                out.write("[... spill limit of " + maxChars + " chars reached, later output dropped]\n");
+                return;
+            }
+            out.write(tag);
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            failed = true;
+            System.err.println("Bot output spill " + path + " failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        failed = true;
+        out.close();
+    }
+}
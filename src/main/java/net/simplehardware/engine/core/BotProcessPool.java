@@ -0,0 +1,142 @@
+package net.simplehardware.engine.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of pre-started bot launcher JVMs.
+ * Idle JVMs already run under the security manager and only wait for a bot jar.
+ * A claimed JVM belongs to one game and is destroyed with it, never reused.
+ */
+public class BotProcessPool {
+    private final int size;
+    private final BlockingQueue<Process> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService spawner;
+    private volatile boolean running;
+
+    public BotProcessPool(int size) {
+        this.size = Math.max(0, size);
+        this.spawner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "bot-pool-spawner");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Fill the pool in the background
+     */
+    public void start() {
+        running = true;
+        for (int i = 0; i < size; i++) {
+            spawner.submit(this::refill);
+        }
+        System.out.println("Bot process pool started (size " + size + ")");
+    }
+
+    /**
+     * Claim an idle launcher JVM, or null if none is ready.
+     * The pool immediately starts a replacement for the claimed JVM.
+     */
+    public Process acquire() {
+        Process process;
+        while ((process = idle.poll()) != null) {
+            if (process.isAlive()) {
+                if (running) {
+                    spawner.submit(this::refill);
+                }
+                return process;
+            }
+            if (running) {
+                spawner.submit(this::refill);
+            }
+        }
+        return null;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void refill() {
+        if (!running || idle.size() >= size) {
+            return;
+        }
+        try {
+            idle.add(spawnLauncher());
+        } catch (IOException e) {
+            System.err.println("Failed to pre-start bot JVM: " + e.getMessage());
+        }
+        if (!running) {
+            destroyIdle();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        spawner.shutdownNow();
+        try {
+            spawner.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        destroyIdle();
+    }
+
+    private void destroyIdle() {
+        Process process;
+        while ((process = idle.poll()) != null) {
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Start a launcher JVM with the bot security policy applied
+     */
+    public static Process spawnLauncher() throws IOException {
+        String policyPath = new File("bot.policy").getAbsolutePath();
+        String classPath = launcherClassPath();
+
+        // Same runtime as the engine, the launcher classes are compiled for it
+        String javaBinary = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        ProcessBuilder pb = new ProcessBuilder(
+                javaBinary,
+                "-Djava.security.manager",
+                "-Djava.security.policy=" + policyPath,
+                "-Dbot.launcher.codebase=" + launcherCodeBase(),
+                "-cp",
+                classPath,
+                BotLauncher.class.getName());
+        return pb.start();
+    }
+
+    private static String launcherClassPath() throws IOException {
+        try {
+            URL location = BotLauncher.class.getProtectionDomain().getCodeSource().getLocation();
+            return new File(location.toURI()).getAbsolutePath();
+        } catch (URISyntaxException e) {
+            throw new IOException("Cannot locate bot launcher classes", e);
+        }
+    }
+
+    /**
+     * Policy code base of the launcher classes, either the engine jar or a class directory
+     */
+    private static String launcherCodeBase() {
+        String location = BotLauncher.class.getProtectionDomain().getCodeSource().getLocation().toString();
+        return location.endsWith("/") ? location + "-" : location;
+    }
+}
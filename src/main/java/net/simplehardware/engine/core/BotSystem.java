@@ -0,0 +1,32 @@
+package net.simplehardware.engine.core;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+
+/**
+ * Stand-in for the standard streams of {@link System} inside an in-process bot.
+ * {@link BotClassLoader} defines a separate copy of this class for every bot and points the bot's
+ * {@code System.in/out/err} and {@code System.setIn/setOut/setErr} references here, so each bot and
+ * every thread it starts talk to their own channel while the JVM-wide streams stay untouched.
+ * Must only depend on java.* classes, it is loaded without access to the engine.
+ */
+public final class BotSystem {
+    public static InputStream in;
+    public static PrintStream out;
+    public static PrintStream err;
+
+    private BotSystem() {
+    }
+
+    public static void setIn(InputStream in) {
+        BotSystem.in = in;
+    }
+
+    public static void setOut(PrintStream out) {
+        BotSystem.out = out;
+    }
+
+    public static void setErr(PrintStream err) {
+        BotSystem.err = err;
+    }
+}
@@ -0,0 +1,83 @@
+package net.simplehardware.engine.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Line reader for bot output that never holds more than a set number of chars of one line.
+ * Longer lines are cut with {@link #TRUNCATED} appended and the rest of the line is skipped,
+ * so a bot printing without newlines cannot exhaust the engine's memory.
+ * Lines end at \n, \r or \r\n like with {@link java.io.BufferedReader}.
+ */
+class BoundedLineReader implements Closeable {
+    static final String TRUNCATED = " [... line truncated]";
+
+    private final Reader in;
+    private final int maxLineChars;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+
+    BoundedLineReader(Reader in, int maxLineChars) {
+        this.in = in;
+        this.maxLineChars = maxLineChars;
+    }
+
+    /**
+     * @return the next line without its terminator, null at the end of the stream
+     */
+    String readLine() throws IOException {
+        StringBuilder line = null;
+        boolean truncated = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (line == null) {
+                    return null;
+                }
+                return truncated ? line.append(TRUNCATED).toString() : line.toString();
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            if (line == null) {
+                line = new StringBuilder();
+            }
+
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            int room = maxLineChars - line.length();
+            if (position - start > room) {
+                truncated = true;
+            }
+            line.append(buffer, start, Math.min(position - start, room));
+            if (position < limit) {
+                skipLineFeed = buffer[position] == '\r';
+                position++;
+                return truncated ? line.append(TRUNCATED).toString() : line.toString();
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -1,46 +1,52 @@
 package net.simplehardware.engine.core;
 
 import net.simplehardware.engine.game.ActionResult;
-import net.simplehardware.engine.game.Direction;
 import net.simplehardware.engine.game.Maze;
 import net.simplehardware.engine.players.Player;
-import net.simplehardware.engine.cells.Cell;
+import net.simplehardware.engine.viewer.elements.CellSnapshot;
+import net.simplehardware.engine.viewer.elements.GameHistory;
 import net.simplehardware.engine.viewer.elements.GameState;
 import net.simplehardware.engine.viewer.elements.PlayerLog;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class GameEngine {
     private final Maze maze;
     private final List<Player> players;
-    private final Map<Player, PlayerProcess> playerProcesses;
+    private final Map<Player, PlayerChannel> playerProcesses;
     private final Referee referee;
     private final int leagueLevel;
     private final int maxTurns;
     private final long turnTimeout;
     private final long firstTurnTimeout;
+    private final long timeBankMs;
+    private final long startupTimeout;
     private final int sheetsPerPlayer;
     private final int logging;
     private final int turnInfo;
+    private final BotProcessPool botPool;
+    private final boolean simultaneousTurns;
+    private final boolean inProcessBots;
+    private final ProcessSupervisor.Group processGroup;
+    private volatile boolean cancelled;
+    private final AtomicBoolean shutDown = new AtomicBoolean();
 
     private final Map<Player, ActionResult> lastResults;
 
-    private boolean randomSpawn = false;
-    private final Map<Integer, StringBuilder> playerLogs = new HashMap<>();
-    private final ByteArrayOutputStream outputCapture = new ByteArrayOutputStream();
-    private final ByteArrayOutputStream errorCapture = new ByteArrayOutputStream();
-    private final StringBuilder protocolCapture = new StringBuilder();
-    private final PrintStream originalOut = System.out;
-    private final PrintStream originalErr = System.err;
-    private final List<GameState> gameHistory = new ArrayList<>();
+    private final boolean randomSpawn;
+    private final int botOutputLimit;
+    private final BotOutputSpill outputSpill;
+    private final GameLog log;
+    private final TurnListener turnListener;
+    private final GameHistory gameHistory;
     private final Map<Integer, PlayerLog> currentTurnLogs = new HashMap<>();
+    private final ProtocolEncoder encoder = new ProtocolEncoder();
+    private final Map<Player, Long> turnSentNanos = new HashMap<>();
+    private final Map<Integer, LatencyHistogram> latencies = new HashMap<>();
 
     public GameEngine(Maze maze, List<String> jarPaths, GameConfig config) {
         this.maze = maze;
@@ -48,25 +54,40 @@ public class GameEngine {
         this.maxTurns = config.maxTurns;
         this.turnTimeout = config.turnTimeoutMs;
         this.firstTurnTimeout = config.firstTurnTimeoutMs;
+        this.timeBankMs = config.timeBankMs;
+        this.startupTimeout = config.startupTimeoutMs;
         this.sheetsPerPlayer = config.sheetsPerPlayer;
         this.logging = config.logging;
         this.turnInfo = config.turnInfo;
-
+        this.botPool = config.botPool;
+        this.simultaneousTurns = config.simultaneousTurns == 1;
+        this.inProcessBots = config.inProcessBots == 1;
+        this.randomSpawn = config.randomSpawn == 1;
+        this.log = config.log != null ? config.log : new GameLog(null, System.out);
+        this.turnListener = config.turnListener;
+        this.botOutputLimit = config.botOutputLimit;
+        this.gameHistory = new GameHistory(maze.getWidth(), maze.getHeight());
         this.players = new ArrayList<>();
         this.playerProcesses = new HashMap<>();
         this.lastResults = new HashMap<>();
 
-        initializePlayers(jarPaths);
-        maze.applyLevelRestrictions(leagueLevel);
-
-        assignForms();
-        maze.removeUnusedPlayerCells(players);
-        maze.updateFinishCells(players);
-        this.referee = new Referee(maze, players, leagueLevel, config.debug == 1);
-    }
-
-    public void setRandomSpawn(boolean randomSpawn) {
-        this.randomSpawn = randomSpawn;
+        this.outputSpill = openOutputSpill(config.botOutputSpillPath, config.botOutputSpillLimit);
+        ProcessSupervisor supervisor = config.supervisor != null ? config.supervisor : new ProcessSupervisor();
+        this.processGroup = supervisor.openGroup("game on " + maze.getName());
+        try {
+            initializePlayers(jarPaths);
+            maze.applyLevelRestrictions(leagueLevel);
+
+            assignForms();
+            maze.removeUnusedPlayerCells(players);
+            maze.updateFinishCells(players);
+            maze.getOccupancy().rebuild(players);
+            this.referee = new Referee(maze, players, leagueLevel, config.debug == 1, log);
+        } catch (RuntimeException | Error e) {
+            // Nobody gets an engine to shut down, do not leave its bots and group behind
+            shutdown();
+            throw e;
+        }
     }
 
     private void initializePlayers(List<String> jarPaths) {
@@ -74,8 +95,7 @@ public class GameEngine {
         if (randomSpawn) {
             for (int y = 0; y < maze.getHeight(); y++) {
                 for (int x = 0; x < maze.getWidth(); x++) {
-                    Cell cell = maze.getCell(x, y);
-                    if (cell instanceof net.simplehardware.engine.cells.FloorCell) {
+                    if (maze.isFloor(x, y)) {
                         validStarts.add(new int[] { x, y });
                     }
                 }
@@ -95,56 +115,72 @@ public class GameEngine {
             }
 
             if (startPos == null) {
-                System.err.println("No start position found for player " + playerId);
+                log.info("No start position found for player " + playerId);
                 continue;
             }
 
             Player player = new Player(playerId, startPos[0], startPos[1], sheetsPerPlayer);
+            if (timeBankMs > 0) {
+                player.setTimeBankNanos(TimeUnit.MILLISECONDS.toNanos(timeBankMs));
+            }
             players.add(player);
 
             try {
-                PlayerProcess process = new PlayerProcess(playerId, jarPaths.get(i));
+                Process launcher = inProcessBots || botPool == null ? null : botPool.acquire();
+                PlayerChannel process;
+                if (inProcessBots) {
+                    process = new InProcessPlayer(playerId, jarPaths.get(i));
+                } else if (launcher != null) {
+                    process = new PlayerProcess(playerId, jarPaths.get(i), launcher);
+                } else {
+                    process = new PlayerProcess(playerId, jarPaths.get(i));
+                }
+                if (process instanceof PlayerProcess playerProcess) {
+                    processGroup.track(playerProcess.getProcess());
+                }
+                process.setOutputCapture(botOutputLimit, outputSpill);
                 playerProcesses.put(player, process);
                 lastResults.put(player, ActionResult.ok(""));
-                playerLogs.put(playerId, new StringBuilder());
+                latencies.put(playerId, new LatencyHistogram());
             } catch (IOException e) {
-                System.err.println("Failed to start player " + playerId + ": " + e.getMessage());
+                log.info("Failed to start player " + playerId + ": " + e.getMessage());
                 player.setActive(false);
             }
         }
     }
 
+    private BotOutputSpill openOutputSpill(String path, long limit) {
+        if (path == null) {
+            return null;
+        }
+        try {
+            return new BotOutputSpill(path, limit);
+        } catch (IOException e) {
+            log.info("Failed to open bot output spill " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     private void assignForms() {
         for (Player player : players) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                for (int x = 0; x < maze.getWidth(); x++) {
-                    Cell cell = maze.getCell(x, y);
-                    if (cell instanceof net.simplehardware.engine.cells.FloorCell floor) {
-                        if (floor.getForm() != null && floor.getFormOwner() == player.getId()) {
-                            char form = floor.getForm();
-                            if (!player.getAssignedForms().contains(form)) {
-                                player.addAssignedForm(form);
-                            }
-                        }
-                    }
-                }
+            for (char form : maze.getFormLetters(player.getId())) {
+                player.addAssignedForm(form);
             }
-            player.getAssignedForms().sort(Character::compareTo);
         }
     }
 
     public void initialize() {
-        System.out.println("=== Game Initialization ===");
-        System.out.println("Maze: " + maze.getName());
-        System.out.println("Players: " + players.size());
-        System.out.println("League Level: " + leagueLevel);
-        System.out.println("Max Turns: " + maxTurns);
+        log.info("=== Game Initialization ===");
+        log.info("Maze: " + maze.getName());
+        log.info("Players: " + players.size());
+        log.info("League Level: " + leagueLevel);
+        log.info("Max Turns: " + maxTurns);
 
         for (Player player : players) {
             if (!player.isActive())
                 continue;
 
-            PlayerProcess process = playerProcesses.get(player);
+            PlayerChannel process = playerProcesses.get(player);
             // MAZE_WIDTH MAZE_HEIGHT LEAGUE_LEVEL
             process.sendLine(maze.getWidth() + " " + maze.getHeight() + " " + leagueLevel);
 
@@ -155,176 +191,285 @@ public class GameEngine {
             }
             process.sendLine(line2);
 
-            System.out.println("Player " + player.getId() + " initialized at (" +
+            log.info("Player " + player.getId() + " initialized at (" +
                     player.getStartX() + "," + player.getStartY() + ")");
         }
+        log.flush();
     }
 
     public void runGame() {
         try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            awaitPlayersReady();
+
+            log.info("\n=== Starting Game ===\n");
+            log.info("DEBUG: Entering game loop. MaxTurns: " + maxTurns + ", CurrentTurn: " + referee.getCurrentTurn());
+
+            while (!referee.isGameOver(maxTurns)) {
+                if (cancelled || Thread.currentThread().isInterrupted()) {
+                    cancelled = true;
+                    log.info("Game cancelled at turn " + referee.getCurrentTurn());
+                    break;
+                }
+                log.info("DEBUG: Running turn " + (referee.getCurrentTurn() + 1));
+
+                captureGameState();
+                runTurn();
+                referee.updateTurn();
+            }
+            captureGameState();
+            log.info("\n=== Game Over ===");
+            printFinalResults();
+            log.flush();
+        } finally {
+            shutdown();
         }
+    }
 
-        System.out.println("\n=== Starting Game ===\n");
-        System.out.println(
-                "DEBUG: Entering game loop. MaxTurns: " + maxTurns + ", CurrentTurn: " + referee.getCurrentTurn());
+    /**
+     * Wait until every bot has read its init lines and waits for the first turn, so that JVM
+     * start-up and the bot's own set-up do not count against that turn.
+     * A bot that is not ready within the start-up limit is treated like a timeout.
+     */
+    private void awaitPlayersReady() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(startupTimeout);
+        for (Player player : players) {
+            PlayerChannel process = playerProcesses.get(player);
+            if (!player.isActive() || process == null)
+                continue;
+
+            long remaining = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            if (!process.awaitReady(remaining)) {
+                log.info("Player " + player.getId() + ": not ready after " + startupTimeout + " ms");
+                handleTimeout(player);
+            }
+        }
+    }
 
+    /**
+     * Ask the game to stop at the next turn boundary, the current turn is played to its end
+     */
+    public void cancel() {
+        cancelled = true;
+    }
 
-        while (!referee.isGameOver(maxTurns)) {
-            System.out.println("DEBUG: Running turn " + (referee.getCurrentTurn() + 1));
+    public boolean isCancelled() {
+        return cancelled;
+    }
 
-            captureGameState();
-            runTurn();
-            referee.updateTurn();
+    /**
+     * Stop all bots of this game, reap their processes and close its process group.
+     * Safe to call more than once, also when {@link #runGame()} never ran or is stuck;
+     * whoever creates an engine must make sure this runs, {@link #runGame()} does it on exit.
+     */
+    public void shutdown() {
+        if (!shutDown.compareAndSet(false, true)) {
+            return;
         }
-        captureGameState();
-        System.out.println("\n=== Game Over ===");
-        printFinalResults();
-        for (PlayerProcess process : playerProcesses.values()) {
+        // Kill the group first, it has to see the bot JVMs alive to find their descendants
+        processGroup.close();
+        for (PlayerChannel process : playerProcesses.values()) {
             process.destroy();
         }
+        if (outputSpill != null) {
+            try {
+                outputSpill.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close bot output spill: " + e.getMessage());
+            }
+        }
     }
 
     private void runTurn() {
         int turn = referee.getCurrentTurn();
-        outputCapture.reset();
-        errorCapture.reset();
-        protocolCapture.setLength(0);
-        System.setOut(new PrintStream(outputCapture));
-        System.setErr(new PrintStream(errorCapture));
+        if (outputSpill != null) {
+            outputSpill.setTurn(turn);
+        }
 
         if (turnInfo == 1)
-            System.out.println("--- Turn " + turn + " ---");
+            log.info("--- Turn " + turn + " ---");
+
+        long timeout = (turn == 1 || turn == 2) ? firstTurnTimeout : turnTimeout;
+        if (simultaneousTurns) {
+            runSimultaneousTurn(timeout);
+        } else {
+            runSequentialTurn(timeout);
+        }
+
+        if (turnInfo == 1)
+            log.info("");
 
         for (Player player : players) {
-            if (!player.isActive())
+            PlayerChannel process = playerProcesses.get(player);
+            if (process == null)
                 continue;
+            String stdout = process.getStdout();
+            String stderr = process.getStderr();
+
+            currentTurnLogs.put(player.getId(), new PlayerLog(stdout, stderr));
+            if (logging == 1 && !stderr.isEmpty()) {
+                log.botStderr(player.getId(), stderr);
+            }
+            process.resetIO();
+        }
 
-            PlayerProcess process = playerProcesses.get(player);
+        log.flushTurn(logging == 1);
+    }
 
-            protocolCapture.append("=== Player ").append(player.getId()).append(" ===\n");
+    /**
+     * Each player receives its turn data and answers before the next one is asked
+     */
+    private void runSequentialTurn(long timeout) {
+        int turn = referee.getCurrentTurn();
+        for (Player player : players) {
+            if (!player.isActive())
+                continue;
+
+            PlayerChannel process = playerProcesses.get(player);
 
             // Send turn data (6 lines)
             sendTurnData(player, process);
-            protocolCapture.append("\n");
             try {
-                long timeout = (turn == 1 || turn == 2) ? firstTurnTimeout : turnTimeout;
-
-                List<String> outputs = new ArrayList<>();
-                String firstLine = process.readLine(timeout);
-                turn = referee.getCurrentTurn()+1;
-
-                if (firstLine == null || firstLine.trim().isEmpty() && turnInfo == 1) {
-                    System.out.println("Player " + player.getId() + ": <no action>");
-                    lastResults.put(player, ActionResult.fail("INVALID"));
-                    continue;
+                long deadline = turnSentNanos.get(player) + TimeUnit.MILLISECONDS.toNanos(timeout);
+                String action = collectAction(player, process, deadline);
+                turn = referee.getCurrentTurn() + 1;
+                timeout = (turn == 1 || turn == 2) ? firstTurnTimeout : turnTimeout;
+                if (action != null) {
+                    applyAction(player, action);
                 }
+            } catch (TimeoutException e) {
+                handleTimeout(player);
+            }
+        }
+    }
 
-                outputs.add(firstLine);
+    /**
+     * All players receive their turn data at once and answer under one shared deadline.
+     * Actions are then applied in player id order so the outcome does not depend on who answered first.
+     */
+    private void runSimultaneousTurn(long timeout) {
+        List<Player> turnOrder = new ArrayList<>();
+        for (Player player : players) {
+            if (!player.isActive())
+                continue;
 
-                try {
-                    while (process.hasMoreOutput()) {
-                        String extraLine = process.readLineNonBlocking();
-                        if (extraLine != null && !extraLine.trim().isEmpty()) {
-                            outputs.add(extraLine);
-                        } else {
-                            break;
-                        }
-                    }
-                } catch (IOException ignored) {
-                }
+            PlayerChannel process = playerProcesses.get(player);
+            sendTurnData(player, process);
+            turnOrder.add(player);
+        }
+        turnOrder.sort(Comparator.comparingInt(Player::getId));
 
-                String action = outputs.getLast();
-                if (action.startsWith("Listening ") && outputs.size() > 1) {
-                    action = outputs.getLast();
-                }
-                if (outputs.size() > 1) {
-                    System.out.println("Player " + player.getId() + " output " + outputs.size() + " lines, using: " + action);
-                }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Map<Player, String> actions = new HashMap<>();
+        for (Player player : turnOrder) {
+            try {
+                actions.put(player, collectAction(player, playerProcesses.get(player), deadline));
+            } catch (TimeoutException e) {
+                handleTimeout(player);
+            }
+        }
 
-                if (turnInfo == 1) System.out.println("Player " + player.getId() + ": " + action);
+        for (Player player : turnOrder) {
+            String action = actions.get(player);
+            if (action != null && player.isActive()) {
+                applyAction(player, action);
+            }
+        }
+    }
 
-                ActionResult result = referee.processAction(player, action);
-                lastResults.put(player, result);
+    /**
+     * Read a player's answer for this turn.
+     * With a time bank the player may answer after the turn deadline, the overrun is taken from its bank.
+     * An answer that arrived after the deadline plus the bank counts as a timeout, even if it was
+     * already queued when the engine got to this player.
+     *
+     * @param deadline {@link System#nanoTime()} of the turn deadline
+     * @return the action line, or null if the player sent nothing usable
+     */
+    private String collectAction(Player player, PlayerChannel process, long deadline)
+            throws TimeoutException {
+        List<String> outputs = new ArrayList<>();
+        long bank = player.getTimeBankNanos();
+        long latest = deadline + Math.max(0, bank);
+        // Rounded up, so the wait does not end just before the deadline
+        long wait = Math.max(0, (latest - System.nanoTime() + 999_999) / 1_000_000);
+        String firstLine = process.readLine(wait);
+        long received = process.getLastReceivedNanos();
+        if (received > latest) {
+            throw new TimeoutException("Player " + player.getId() + " answered after the deadline");
+        }
+        latencies.get(player.getId()).record(received - turnSentNanos.get(player));
+        if (bank >= 0 && received > deadline) {
+            player.setTimeBankNanos(Math.max(0, bank - (received - deadline)));
+            if (turnInfo == 1)
+                log.info("Player " + player.getId() + ": " + TimeUnit.NANOSECONDS.toMillis(received - deadline)
+                        + " ms over, time bank " + player.getTimeBankMs() + " ms left");
+        }
 
-                logToPlayer(player.getId(), action);
+        if (firstLine == null || firstLine.trim().isEmpty() && turnInfo == 1) {
+            log.info("Player " + player.getId() + ": <no action>");
+            lastResults.put(player, ActionResult.fail("INVALID"));
+            return null;
+        }
 
-                if (turnInfo == 1)
-                    System.out.println("  Result: " + result);
+        outputs.add(firstLine);
 
-            } catch (TimeoutException e) {
-                System.out.println("Player " + player.getId() + ": TIMEOUT");
-                player.setTimedOut(true);
-                player.setActive(false);
-                lastResults.put(player, ActionResult.fail("TIMEOUT"));
+        try {
+            while (process.hasMoreOutput()) {
+                String extraLine = process.readLineNonBlocking();
+                if (extraLine != null && !extraLine.trim().isEmpty()) {
+                    outputs.add(extraLine);
+                } else {
+                    break;
+                }
             }
+        } catch (IOException ignored) {
         }
 
-        if (turnInfo == 1)
-            System.out.println();
+        String action = outputs.getLast();
+        if (action.startsWith("Listening ") && outputs.size() > 1) {
+            action = outputs.getLast();
+        }
+        if (outputs.size() > 1) {
+            log.info("Player " + player.getId() + " output " + outputs.size() + " lines, using: " + action);
+        }
+        return action;
+    }
 
-        StringBuilder playerStdoutAll = new StringBuilder();
-        StringBuilder playerStderrAll = new StringBuilder();
-        for (Player player : players) {
-            PlayerProcess process = playerProcesses.get(player);
-            String stdout = process.getStdout();
-            String stderr = process.getStderr();
+    private void applyAction(Player player, String action) {
+        if (turnInfo == 1) log.info("Player " + player.getId() + ": " + action);
 
-            currentTurnLogs.put(player.getId(), new PlayerLog(stdout, stderr));
-            if (!stdout.isEmpty()) {
-                playerStdoutAll.append("=== Player ").append(player.getId()).append(" stdout ===\n");
-                playerStdoutAll.append(stdout);
-            }
-            if (!stderr.isEmpty()) {
-                playerStderrAll.append("=== Player ").append(player.getId()).append(" stderr ===\n");
-                playerStderrAll.append(stderr);
-            }
-            process.resetIO();
-        }
+        ActionResult result = referee.processAction(player, action);
+        lastResults.put(player, result);
 
-        String gameLog = outputCapture.toString();
-        String playerStderr = playerStderrAll.toString();
-        System.setOut(originalOut);
-        System.setErr(originalErr);
+        if (turnInfo == 1)
+            log.info("  Result: " + result);
+    }
 
-        System.out.print(gameLog);
-        if (!playerStderr.isEmpty() && logging == 1) {
-            System.err.print(playerStderr);
+    private void handleTimeout(Player player) {
+        log.info("Player " + player.getId() + ": TIMEOUT");
+        latencies.get(player.getId()).recordTimeout();
+        if (player.isActive()) {
+            maze.getOccupancy().remove(player.getX(), player.getY());
         }
+        player.setTimedOut(true);
+        player.setActive(false);
+        lastResults.put(player, ActionResult.fail("TIMEOUT"));
     }
 
-    private void sendTurnData(Player player, PlayerProcess process) {
-        ActionResult lastResult = lastResults.get(player);
-        String line1 = lastResult.toString();
-        process.sendLine(line1);
-        protocolCapture.append(line1).append("\n");
-        logToPlayer(player.getId(), line1);
-
-        String currentCell = maze.getCellInfo(player.getX(), player.getY(), players, player, null, leagueLevel);
-        process.sendLine(currentCell);
-        protocolCapture.append(currentCell).append("\n");
-        logToPlayer(player.getId(), currentCell);
-
-        for (Direction dir : Direction.values()) {
-            int nx = player.getX() + dir.getDx();
-            int ny = player.getY() + dir.getDy();
-            String cellInfo = maze.getCellInfo(nx, ny, players, player, dir, leagueLevel);
-            process.sendLine(cellInfo);
-            protocolCapture.append(cellInfo).append("\n");
-            logToPlayer(player.getId(), cellInfo);
-        }
+    private void sendTurnData(Player player, PlayerChannel process) {
+        encoder.encodeTurn(lastResults.get(player), maze, player, leagueLevel);
+        turnSentNanos.put(player, System.nanoTime());
+        process.sendBytes(encoder.getBuffer(), encoder.length());
     }
 
     private void printFinalResults() {
-        System.out.println("Final Scores:");
+        log.info("Final Scores:");
 
         long activePlayers = players.stream().filter(Player::isActive).count();
         if (activePlayers == 1) {
             Player lastStanding = players.stream().filter(Player::isActive).findFirst().orElse(null);
             if (lastStanding != null) {
-                System.out.println("Last Player Standing Bonus: " + lastStanding.getId() + " (+20 points)");
+                log.info("Last Player Standing Bonus: " + lastStanding.getId() + " (+20 points)");
                 lastStanding.addScore(20);
             }
         }
@@ -342,7 +487,7 @@ public class GameEngine {
             Player p = sortedPlayers.get(i);
             String status = p.isFinished() ? "FINISHED"
                     : p.isTimedOut() ? "TIMEOUT" : !p.isActive() ? "INACTIVE" : "ACTIVE";
-            System.out.println((i + 1) + ". Player " + p.getId() + ": " +
+            log.info((i + 1) + ". Player " + p.getId() + ": " +
                     p.getScore() + " points (" + status + ") - Forms: " +
                     p.getCollectedForms().size() + "/" + p.getAssignedForms().size());
 
@@ -350,47 +495,65 @@ public class GameEngine {
 
         Player winner = referee.getWinner();
         if (winner != null) {
-            System.out.println("\nWinner: Player " + winner.getId() + " with " +
+            log.info("\nWinner: Player " + winner.getId() + " with " +
                     winner.getScore() + " points!");
         }
-        System.out.println("Total Turns: " + referee.getCurrentTurn());
-    }
-
-    private void logToPlayer(int playerId, String line) {
-        StringBuilder log = playerLogs.get(playerId);
-        if (log != null) {
-            log.append(line).append("\n");
-        }
+        log.info("Total Turns: " + referee.getCurrentTurn());
     }
 
     private void captureGameState() {
-        Cell[][] cellGrid = new Cell[maze.getWidth()][maze.getHeight()];
-        for (int x = 0; x < maze.getWidth(); x++) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                cellGrid[x][y] = maze.getCell(x, y);
+        GameState state;
+        if (gameHistory.isEmpty()) {
+            CellSnapshot[][] cells = new CellSnapshot[maze.getWidth()][maze.getHeight()];
+            for (int x = 0; x < maze.getWidth(); x++) {
+                for (int y = 0; y < maze.getHeight(); y++) {
+                    cells[x][y] = CellSnapshot.of(maze, x, y);
+                }
+            }
+            maze.drainChangedCells();
+            state = gameHistory.addInitial(referee.getCurrentTurn(), players, cells, currentTurnLogs);
+        } else {
+            List<CellSnapshot> changed = new ArrayList<>();
+            for (int[] pos : maze.drainChangedCells()) {
+                changed.add(CellSnapshot.of(maze, pos[0], pos[1]));
             }
+            state = gameHistory.addTurn(referee.getCurrentTurn(), players, changed, currentTurnLogs);
         }
+        currentTurnLogs.clear();
 
-        GameState state = new GameState(
-                referee.getCurrentTurn(),
-                maze.getWidth(),
-                maze.getHeight(),
-                players,
-                cellGrid,
-                new HashMap<>(currentTurnLogs));
+        if (turnListener != null) {
+            try {
+                turnListener.onTurn(state);
+            } catch (RuntimeException e) {
+                // Spectators must never break the game
+                System.err.println("Turn listener failed: " + e.getMessage());
+            }
+        }
+    }
 
-        gameHistory.add(state);
-        currentTurnLogs.clear();
+    /**
+     * Response times per player id, for players whose bot was started
+     */
+    public Map<Integer, LatencyHistogram> getLatencies() {
+        return latencies;
     }
 
     public List<GameState> getGameHistory() {
-        return new ArrayList<>(gameHistory);
+        return new ArrayList<>(gameHistory.getStates());
     }
 
     public Maze getMaze() {
         return maze;
     }
 
+    /**
+     * Receives every captured state right after it is added to the history, on the game thread
+     */
+    @FunctionalInterface
+    public interface TurnListener {
+        void onTurn(GameState state);
+    }
+
     public static class GameConfig {
         public int debug = 0;
         public int turnInfo = 1;
@@ -399,6 +562,27 @@ public class GameEngine {
         public int logging = 1;
         public long turnTimeoutMs = 100;
         public long firstTurnTimeoutMs = 1000;
+        /** Limit for all bots of a game to load before turn 1, not counted against any turn */
+        public long startupTimeoutMs = 5000;
+        /** Reserve in ms each player can spend over the turn timeouts during the game, 0 disables it */
+        public long timeBankMs = 0;
         public int sheetsPerPlayer = 2;
+        public BotProcessPool botPool = null;
+        /** Tracks the bot processes of this game, a private one is used when null */
+        public ProcessSupervisor supervisor = null;
+        public int simultaneousTurns = 0;
+        /** Place players on random free cells instead of their start cells */
+        public int randomSpawn = 0;
+        /** Run trusted bots on threads inside this JVM, see {@link InProcessPlayer} */
+        public int inProcessBots = 0;
+        public GameLog log = null;
+        /** Chars of stdout and of stderr kept per bot and turn, older output of a noisy turn is dropped */
+        public int botOutputLimit = PlayerChannel.DEFAULT_OUTPUT_LIMIT;
+        /** File the complete output of all bots is written to, see {@link BotOutputSpill}; none when null */
+        public String botOutputSpillPath = null;
+        /** Chars written to the spill file before further output is dropped, 0 for no limit */
+        public long botOutputSpillLimit = 0;
+        /** Called with each captured turn, e.g. to stream a running game */
+        public TurnListener turnListener = null;
     }
 }
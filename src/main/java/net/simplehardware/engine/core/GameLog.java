@@ -0,0 +1,115 @@
+package net.simplehardware.engine.core;
+
+import java.io.PrintStream;
+
+/**
+ * Log channel of a single game.
+ * The engine writes turn info here and bot stderr to a separate sink instead of redirecting
+ * the process-wide System.out/System.err. Lines of a turn are buffered and handed to the
+ * sinks as one block, so concurrent games never interleave.
+ */
+public class GameLog {
+    private final String tag;
+    private final PrintStream sink;
+    private final PrintStream stderrSink;
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder botStderr = new StringBuilder();
+
+    /**
+     * Log with bot stderr going to {@link System#err}
+     *
+     * @param tag  short game identifier written in front of each line, may be null
+     * @param sink where finished blocks of engine output are written
+     */
+    public GameLog(String tag, PrintStream sink) {
+        this(tag, sink, System.err);
+    }
+
+    /**
+     * @param tag        short game identifier written in front of each line, may be null
+     * @param sink       where finished blocks of engine output are written
+     * @param stderrSink where bot stderr is written, each line tagged with its player
+     */
+    public GameLog(String tag, PrintStream sink, PrintStream stderrSink) {
+        this.tag = tag;
+        this.sink = sink;
+        this.stderrSink = stderrSink;
+    }
+
+    /**
+     * Engine output such as turn info, results and timeouts
+     */
+    public void info(String line) {
+        pending.append(line).append('\n');
+    }
+
+    /**
+     * Stderr a bot produced during the current turn
+     */
+    public void botStderr(int playerId, String stderr) {
+        String prefix = "P" + playerId + " err| ";
+        int lineStart = 0;
+        for (int i = 0; i < stderr.length(); i++) {
+            if (stderr.charAt(i) == '\n') {
+                botStderr.append(prefix).append(stderr, lineStart, i + 1);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < stderr.length()) {
+            botStderr.append(prefix).append(stderr, lineStart, stderr.length()).append('\n');
+        }
+    }
+
+    /**
+     * Write buffered engine output to the sink as one block
+     */
+    public void flush() {
+        write(sink, pending);
+    }
+
+    /**
+     * Write the buffered turn to the sinks and start a new turn
+     *
+     * @param includeBotStderr whether bot stderr of this turn is written as well
+     */
+    public void flushTurn(boolean includeBotStderr) {
+        flush();
+        if (includeBotStderr) {
+            write(stderrSink, botStderr);
+        }
+        botStderr.setLength(0);
+    }
+
+    private void write(PrintStream target, StringBuilder text) {
+        if (text.isEmpty()) {
+            return;
+        }
+
+        StringBuilder block;
+        if (tag != null) {
+            block = new StringBuilder(text.length() + 16);
+            prefixLines(block, text);
+        } else {
+            block = new StringBuilder(text);
+        }
+        text.setLength(0);
+
+        synchronized (target) {
+            target.print(block);
+            target.flush();
+        }
+    }
+
+    private void prefixLines(StringBuilder block, CharSequence text) {
+        int lineStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                block.append('[').append(tag).append("] ").append(text, lineStart, i + 1);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < text.length()) {
+            block.append('[').append(tag).append("] ").append(text, lineStart, text.length()).append('\n');
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package net.simplehardware.engine.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Bot running on a thread inside the engine JVM, for trusted local training and benchmarking.
+ * The protocol lines travel through in-memory pipes instead of process pipes. A {@link Bot}
+ * gets its streams passed in; a jar bot is loaded by a {@link BotClassLoader}, which points
+ * its System.in/out/err at streams of this channel without touching the JVM-wide ones.
+ * There is no security manager here: a bot can read files or call System.exit, so only
+ * use this with bots you trust. {@link #destroy()} closes the bot's stdin and interrupts
+ * its thread; a bot has to stop when its input ends or it is interrupted, a bot that
+ * computes forever keeps its thread, which is reported on destroy.
+ */
+public class InProcessPlayer extends PlayerChannel {
+    /**
+     * Bot path prefix naming a {@link Bot} implementation on the engine classpath instead of a jar
+     */
+    public static final String CLASS_PREFIX = "class:";
+
+    /**
+     * Bot written directly against the engine, reading turn data from in and answering on out
+     */
+    public interface Bot {
+        void run(InputStream in, PrintStream out, PrintStream err) throws Exception;
+    }
+
+    private static final long STOP_GRACE_MS = 100;
+
+    private final MemoryPipe pipe = new MemoryPipe();
+    private final InputStream stdin = new ReadySignalInputStream(pipe, this::markReady);
+    private final PrintStream stdout;
+    private final PrintStream stderr;
+    private final BotClassLoader loader;
+    private final Thread botThread;
+
+    /**
+     * Load a bot jar, or a {@link Bot} class when the path starts with {@link #CLASS_PREFIX}
+     */
+    public InProcessPlayer(int playerId, String botPath) throws IOException {
+        this(playerId, load(botPath));
+    }
+
+    public InProcessPlayer(int playerId, Bot bot) throws IOException {
+        this(playerId, new LoadedBot(bot, null));
+    }
+
+    private InProcessPlayer(int playerId, LoadedBot loaded) throws IOException {
+        super(playerId);
+        this.stdout = new PrintStream(new LineSink(false), true, StandardCharsets.UTF_8);
+        this.stderr = new PrintStream(new LineSink(true), true, StandardCharsets.UTF_8);
+        this.loader = loaded.loader();
+
+        if (loader != null) {
+            try {
+                loader.setStreams(stdin, stdout, stderr);
+            } catch (ReflectiveOperationException e) {
+                loader.close();
+                throw new IOException("Cannot set up streams of bot " + playerId + ": " + e);
+            }
+        }
+        this.botThread = Thread.ofPlatform().daemon().name("bot-" + playerId).unstarted(() -> runBot(loaded.bot()));
+        if (loader != null) {
+            botThread.setContextClassLoader(loader);
+        }
+        botThread.start();
+    }
+
+    private record LoadedBot(Bot bot, BotClassLoader loader) {
+    }
+
+    private static LoadedBot load(String botPath) throws IOException {
+        if (botPath.startsWith(CLASS_PREFIX)) {
+            return new LoadedBot(instantiate(botPath.substring(CLASS_PREFIX.length())), null);
+        }
+        File jarFile = new File(botPath);
+        String mainClassName = BotLauncher.readMainClass(jarFile);
+        if (mainClassName == null) {
+            throw new IOException("No Main-Class in " + jarFile);
+        }
+        BotClassLoader loader = new BotClassLoader(jarFile);
+        return new LoadedBot(mainMethodBot(mainClassName, loader), loader);
+    }
+
+    private void runBot(Bot bot) {
+        try {
+            bot.run(stdin, stdout, stderr);
+        } catch (Throwable e) {
+            Throwable cause = e instanceof InvocationTargetException ite ? ite.getCause() : e;
+            cause.printStackTrace(stderr);
+        } finally {
+            stdout.flush();
+            try {
+                closeStdout();
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    private static Bot mainMethodBot(String mainClassName, ClassLoader loader) {
+        return (in, out, err) -> {
+            Class<?> mainClass = Class.forName(mainClassName, true, loader);
+            Method main = mainClass.getMethod("main", String[].class);
+            main.invoke(null, (Object) new String[0]);
+        };
+    }
+
+    private static Bot instantiate(String className) throws IOException {
+        try {
+            Class<?> botClass = Class.forName(className);
+            return (Bot) botClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IOException("Cannot create bot " + className + ": " + e);
+        }
+    }
+
+    @Override
+    public void sendLine(String line) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        pipe.write(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void sendBytes(byte[] bytes, int length) {
+        pipe.write(bytes, 0, length);
+    }
+
+    @Override
+    public void destroy() {
+        pipe.close();
+        botThread.interrupt();
+        try {
+            botThread.join(STOP_GRACE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (botThread.isAlive()) {
+            System.err.println("In-process bot " + playerId + " ignores interruption, its thread keeps running");
+        }
+        if (loader != null) {
+            try {
+                loader.close();
+            } catch (IOException e) {
+                System.err.println("Error closing bot classloader: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Splits bot output into lines and hands them to the engine as soon as a line is complete.
+     * Bytes past {@link #MAX_LINE_CHARS} of a line are dropped, like {@link BoundedLineReader} does for bot processes.
+     */
+    private class LineSink extends OutputStream {
+        private final boolean error;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private boolean truncated;
+
+        LineSink(boolean error) {
+            this.error = error;
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            if (b == '\n') {
+                emit();
+            } else if (b != '\r') {
+                if (line.size() < MAX_LINE_CHARS) {
+                    line.write(b);
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        private void emit() throws IOException {
+            String text = line.toString(StandardCharsets.UTF_8);
+            if (truncated) {
+                text += BoundedLineReader.TRUNCATED;
+                truncated = false;
+            }
+            line.reset();
+            if (error) {
+                appendStderr(text);
+                return;
+            }
+            try {
+                offerStdoutLine(text);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Bot output interrupted");
+            }
+        }
+    }
+
+    /**
+     * Unbounded in-memory byte pipe from the engine to the bot
+     */
+    private static final class MemoryPipe extends InputStream {
+        private byte[] buffer = new byte[1024];
+        private int head;
+        private int tail;
+        private boolean closed;
+
+        synchronized void write(byte[] bytes, int offset, int length) {
+            if (closed) {
+                return;
+            }
+            if (tail + length > buffer.length) {
+                int used = tail - head;
+                if (used + length > buffer.length) {
+                    byte[] larger = Arrays.copyOf(Arrays.copyOfRange(buffer, head, tail),
+                            Math.max(buffer.length * 2, used + length));
+                    buffer = larger;
+                } else {
+                    System.arraycopy(buffer, head, buffer, 0, used);
+                }
+                head = 0;
+                tail = used;
+            }
+            System.arraycopy(bytes, offset, buffer, tail, length);
+            tail += length;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            if (!awaitData()) {
+                return -1;
+            }
+            return buffer[head++] & 0xFF;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!awaitData()) {
+                return -1;
+            }
+            int count = Math.min(len, tail - head);
+            System.arraycopy(buffer, head, b, off, count);
+            head += count;
+            return count;
+        }
+
+        @Override
+        public synchronized int available() {
+            return tail - head;
+        }
+
+        private boolean awaitData() throws IOException {
+            while (head == tail && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Bot input interrupted");
+                }
+            }
+            return head < tail;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package net.simplehardware.engine.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response times of one bot in one game.
+ * The first response includes JVM and bot start-up, so it is kept apart from the
+ * histogram of the following turns. Turn times are counted in log-linear microsecond
+ * buckets (32 per power of two, about 3% precision), so recording is a single array
+ * increment and percentiles need no stored samples.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+
+    private final long[] buckets = new long[LINEAR_BUCKETS + (MAX_EXPONENT - 5) * SUB_BUCKETS];
+    private long count;
+    private long maxMicros;
+    private long firstMicros = -1;
+    private int timeouts;
+
+    /**
+     * Record one response time, the first call sets the first-turn time
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        if (firstMicros < 0) {
+            firstMicros = micros;
+            return;
+        }
+        buckets[bucketIndex(micros)]++;
+        count++;
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    public void recordTimeout() {
+        timeouts++;
+    }
+
+    /**
+     * Add the turns of another histogram, e.g. to aggregate one bot over many games.
+     * First-turn times are not merged.
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+        timeouts += other.timeouts;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * First response time in milliseconds, -1 if the bot never answered
+     */
+    public double getFirstTurnMs() {
+        return firstMicros < 0 ? -1 : firstMicros / 1000.0;
+    }
+
+    public double getMaxMs() {
+        return maxMicros / 1000.0;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile of turn times, in milliseconds
+     *
+     * @param percentile between 0 and 100
+     */
+    public double getPercentileMs(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxMicros) / 1000.0;
+            }
+        }
+        return getMaxMs();
+    }
+
+    /**
+     * Summary as stored with game results and returned by the API
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("firstTurnMs", round(getFirstTurnMs()));
+        summary.put("turns", count);
+        summary.put("p50Ms", round(getPercentileMs(50)));
+        summary.put("p90Ms", round(getPercentileMs(90)));
+        summary.put("p99Ms", round(getPercentileMs(99)));
+        summary.put("maxMs", round(getMaxMs()));
+        summary.put("timeouts", timeouts);
+        return summary;
+    }
+
+    private static int bucketIndex(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT - 1);
+        int subBucket = (int) ((micros >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        if (exponent == MAX_EXPONENT - 1 && micros >= (1L << MAX_EXPONENT)) {
+            subBucket = SUB_BUCKETS - 1;
+        }
+        return LINEAR_BUCKETS + (exponent - 6) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = 6 + (index - LINEAR_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 100) / 100.0;
+    }
+}
@@ -0,0 +1,82 @@
+package net.simplehardware.engine.core;
+
+/**
+ * Text a bot wrote to one stream during the current turn, capped at a fixed number of chars.
+ * When it is full the oldest text is overwritten, so the end of a noisy turn is kept and
+ * {@link #toString()} starts with a marker telling how much was dropped.
+ */
+final class OutputRing {
+    private char[] buffer;
+    private int start;
+    private int length;
+    private long dropped;
+
+    OutputRing(int capacity) {
+        buffer = new char[Math.max(capacity, 1)];
+    }
+
+    synchronized void appendLine(String line) {
+        append(line);
+        append("\n");
+    }
+
+    private void append(String text) {
+        int capacity = buffer.length;
+        int offset = 0;
+        if (text.length() >= capacity) {
+            // Only the last capacity chars can survive
+            offset = text.length() - capacity;
+            dropped += length + offset;
+            start = 0;
+            length = 0;
+        }
+        int free = capacity - length;
+        int count = text.length() - offset;
+        if (count > free) {
+            int overwritten = count - free;
+            start = (start + overwritten) % capacity;
+            length -= overwritten;
+            dropped += overwritten;
+        }
+        int end = (start + length) % capacity;
+        int first = Math.min(count, capacity - end);
+        text.getChars(offset, offset + first, buffer, end);
+        text.getChars(offset + first, offset + count, buffer, 0);
+        length += count;
+    }
+
+    /**
+     * Change the limit, the newest text is kept
+     */
+    synchronized void setCapacity(int capacity) {
+        String kept = contents();
+        long droppedBefore = dropped;
+        buffer = new char[Math.max(capacity, 1)];
+        start = 0;
+        length = 0;
+        dropped = 0;
+        append(kept);
+        dropped += droppedBefore;
+    }
+
+    synchronized void clear() {
+        start = 0;
+        length = 0;
+        dropped = 0;
+    }
+
+    private String contents() {
+        int first = Math.min(length, buffer.length - start);
+        StringBuilder text = new StringBuilder(length);
+        text.append(buffer, start, first).append(buffer, 0, length - first);
+        return text.toString();
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (dropped == 0) {
+            return contents();
+        }
+        return "[... " + dropped + " chars dropped ...]\n" + contents();
+    }
+}
@@ -0,0 +1,222 @@
+package net.simplehardware.engine.core;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Protocol connection between the engine and one bot.
+ * Subclasses deliver the turn data to the bot and feed its stdout lines into a bounded
+ * queue that the engine polls with the turn deadline; stdout and stderr of the current
+ * turn are kept for the logs, up to {@link #DEFAULT_OUTPUT_LIMIT} chars each unless changed
+ * with {@link #setOutputCapture}.
+ */
+public abstract class PlayerChannel {
+    private static final int LINE_QUEUE_CAPACITY = 256;
+    private static final long CLOSE_TIMEOUT_MS = 1000;
+    private static final Line END_OF_STREAM = new Line(null, 0);
+    public static final int DEFAULT_OUTPUT_LIMIT = 16 * 1024;
+    /** Chars of a single stdout or stderr line kept, the rest of a longer line is dropped */
+    static final int MAX_LINE_CHARS = 64 * 1024;
+
+    protected final int playerId;
+    private final BlockingQueue<Line> stdoutLines = new ArrayBlockingQueue<>(LINE_QUEUE_CAPACITY);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private volatile boolean ready;
+    private volatile boolean timedOut;
+    private long lastReceivedNanos;
+    private volatile boolean stdoutClosed;
+    private final OutputRing stdoutBuffer = new OutputRing(DEFAULT_OUTPUT_LIMIT);
+    private final OutputRing stderrBuffer = new OutputRing(DEFAULT_OUTPUT_LIMIT);
+    private volatile BotOutputSpill spill;
+
+    /**
+     * Stdout line with the time it arrived from the bot, {@link #END_OF_STREAM} has no text
+     */
+    private record Line(String text, long receivedNanos) {
+        boolean isEndOfStream() {
+            return text == null;
+        }
+    }
+
+    protected PlayerChannel(int playerId) {
+        this.playerId = playerId;
+    }
+
+    public abstract void sendLine(String line);
+
+    /**
+     * Write pre-encoded protocol bytes with a single write and flush
+     */
+    public abstract void sendBytes(byte[] bytes, int length);
+
+    public abstract void destroy();
+
+    /**
+     * Queue a line the bot wrote to stdout, blocking while the queue is full
+     */
+    protected void offerStdoutLine(String line) throws InterruptedException {
+        if (line == null) {
+            throw new IllegalArgumentException("Stdout line must not be null, use closeStdout");
+        }
+        stdoutLines.put(new Line(line, System.nanoTime()));
+    }
+
+    /**
+     * Signal that the bot has read its init lines and waits for the first turn
+     */
+    protected void markReady() {
+        ready = true;
+        started.countDown();
+    }
+
+    /**
+     * Signal that the bot's stdout is closed. If the engine stopped reading and the queue stays
+     * full, the queued lines are given up instead of blocking the caller.
+     */
+    protected void closeStdout() throws InterruptedException {
+        started.countDown();
+        if (!stdoutLines.offer(END_OF_STREAM, CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            stdoutClosed = true;
+        }
+    }
+
+    /**
+     * Wait until the bot has read its init lines and waits for the first turn
+     *
+     * @return false if the bot did not get ready in time or exited before
+     */
+    public boolean awaitReady(long timeoutMs) {
+        try {
+            started.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ready;
+    }
+
+    /**
+     * Limit the output kept per stream and turn, and optionally write all of it to a spill file
+     *
+     * @param limitChars chars of stdout and of stderr kept per turn, older output of the turn is dropped
+     * @param spill      receives every line in full, may be null
+     */
+    public void setOutputCapture(int limitChars, BotOutputSpill spill) {
+        stdoutBuffer.setCapacity(limitChars);
+        stderrBuffer.setCapacity(limitChars);
+        this.spill = spill;
+    }
+
+    protected void appendStderr(String line) {
+        stderrBuffer.appendLine(line);
+        BotOutputSpill spill = this.spill;
+        if (spill != null) {
+            spill.write(playerId, true, line);
+        }
+    }
+
+    public void resetIO() {
+        stdoutBuffer.clear();
+        stderrBuffer.clear();
+    }
+
+    public String readLine(long timeoutMs) throws TimeoutException {
+        if (stdoutClosed) {
+            timedOut = true;
+            throw new TimeoutException("Player " + playerId + " disconnected");
+        }
+
+        Line line;
+        try {
+            line = stdoutLines.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = true;
+            throw new TimeoutException("Player " + playerId + " error: interrupted");
+        }
+
+        if (line == null) {
+            timedOut = true;
+            throw new TimeoutException("Player " + playerId + " did not answer within " + timeoutMs + " ms");
+        }
+        if (line.isEndOfStream()) {
+            stdoutClosed = true;
+            timedOut = true;
+            throw new TimeoutException("Player " + playerId + " disconnected");
+        }
+        lastReceivedNanos = line.receivedNanos();
+        recordStdout(line.text());
+        return line.text();
+    }
+
+    /**
+     * {@link System#nanoTime()} at which the line last returned by {@link #readLine} arrived from the bot,
+     * independent of when the engine got around to reading it
+     */
+    public long getLastReceivedNanos() {
+        return lastReceivedNanos;
+    }
+
+    private void recordStdout(String line) {
+        stdoutBuffer.appendLine(line);
+        BotOutputSpill spill = this.spill;
+        if (spill != null) {
+            spill.write(playerId, false, line);
+        }
+    }
+
+    public String getStdout() {
+        return stdoutBuffer.toString();
+    }
+
+    public String getStderr() {
+        return stderrBuffer.toString();
+    }
+
+    public void clearOutput() {
+        resetIO();
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Check if there is more output available to read without blocking
+     */
+    public boolean hasMoreOutput() throws IOException {
+        Line next = stdoutLines.peek();
+        return next != null && !next.isEndOfStream();
+    }
+
+    /**
+     * Read a line from stdout without blocking if available
+     *
+     * @return the line read, or null if no line is available
+     */
+    public String readLineNonBlocking() throws IOException {
+        Line line = stdoutLines.poll();
+        if (line == null) {
+            return null;
+        }
+        if (line.isEndOfStream()) {
+            stdoutClosed = true;
+            return null;
+        }
+        recordStdout(line.text());
+        return line.text();
+    }
+
+    /**
+     * Drain all available output from stdout buffer
+     * This prevents buffer accumulation when player outputs multiple lines
+     */
+    public void drainStdout() throws IOException {
+        while (hasMoreOutput()) {
+            readLineNonBlocking();
+        }
+    }
+}
@@ -1,171 +1,111 @@
 package net.simplehardware.engine.core;
 
 import java.io.*;
-import java.util.concurrent.*;
 
 /**
- * Wrapper for a player JAR process that handles I/O communication
+ * Wrapper for a player JAR process that handles I/O communication.
+ * Each bot stream is pumped by its own platform daemon thread, since the pumps spend their
+ * life blocked in pipe reads, which would pin a virtual thread's carrier. Stdout lines land
+ * in a bounded queue that the engine polls with the turn deadline, overlong lines are truncated.
  */
-public class PlayerProcess {
-    private final int playerId;
+public class PlayerProcess extends PlayerChannel {
     private final Process process;
-    private final BufferedReader stdoutReader;
-    private final BufferedReader stderrReader;
+    private final BoundedLineReader stdoutReader;
+    private final BoundedLineReader stderrReader;
+    private final OutputStream stdin;
     private final PrintWriter stdinWriter;
-    private final ExecutorService executor;
-    private volatile boolean timedOut;
-    private final StringBuilder stdoutBuffer = new StringBuilder();
-    private final StringBuilder stderrBuffer = new StringBuilder();
+    private final Thread stdoutPump;
+    private final Thread stderrPump;
 
+    /**
+     * Start a bot in a freshly spawned launcher JVM
+     */
     public PlayerProcess(int playerId, String jarPath) throws IOException {
-        this.playerId = playerId;
-        this.executor = Executors.newFixedThreadPool(2);
-
-        File policyFile = new File("bot.policy");
-        String policyPath = policyFile.getAbsolutePath();
-
-        String absJarPath = new File(jarPath).getAbsolutePath();
-
-        ProcessBuilder pb = new ProcessBuilder(
-                "java",
-                "-Djava.security.manager",
-                "-Djava.security.policy=" + policyPath,
-                "-Dbot.jar.path=" + absJarPath,
-                "-jar",
-                jarPath);
-        this.process = pb.start();
-        this.stdoutReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        this.stderrReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-        this.stdinWriter = new PrintWriter(new OutputStreamWriter(process.getOutputStream()), true);
-        this.timedOut = false;
-
-        startStderrCapture();
+        this(playerId, jarPath, BotProcessPool.spawnLauncher());
     }
 
-    public void resetIO() {
-        stdoutBuffer.setLength(0);
-        stderrBuffer.setLength(0);
-    }
-
-    private void startStderrCapture() {
-        executor.submit(() -> {
-            try {
-                String line;
-                while ((line = stderrReader.readLine()) != null) {
-                    synchronized (stderrBuffer) {
-                        stderrBuffer.append(line).append("\n");
-                    }
-                }
-            } catch (IOException ignored) { }
-        });
-    }
-
-    public void sendLine(String line) {
-        stdinWriter.println(line);
-        stdinWriter.flush();
+    /**
+     * Start a bot in an already running launcher JVM, e.g. one claimed from a {@link BotProcessPool}
+     */
+    public PlayerProcess(int playerId, String jarPath, Process launcher) {
+        super(playerId);
+        this.process = launcher;
+        this.stdoutReader = new BoundedLineReader(new InputStreamReader(process.getInputStream()), MAX_LINE_CHARS);
+        this.stderrReader = new BoundedLineReader(new InputStreamReader(process.getErrorStream()), MAX_LINE_CHARS);
+        this.stdin = process.getOutputStream();
+        this.stdinWriter = new PrintWriter(new OutputStreamWriter(stdin), true);
+
+        sendLine(BotLauncher.LOAD_COMMAND + new File(jarPath).getAbsolutePath());
+        this.stdoutPump = Thread.ofPlatform().daemon().name("bot-" + playerId + "-stdout").start(this::pumpStdout);
+        this.stderrPump = Thread.ofPlatform().daemon().name("bot-" + playerId + "-stderr").start(this::pumpStderr);
     }
 
-    public String readLine(long timeoutMs) throws TimeoutException {
-        Future<String> future = executor.submit(() -> {
-            try {
-                String line = stdoutReader.readLine();
-                if (line != null) {
-                    synchronized (stdoutBuffer) {
-                        stdoutBuffer.append(line).append("\n");
-                    }
+    private void pumpStdout() {
+        try {
+            // The bot may print while it sets up, the ready line can come after such output
+            boolean ready = false;
+            String line;
+            while ((line = stdoutReader.readLine()) != null) {
+                if (!ready && BotLauncher.READY_LINE.equals(line)) {
+                    ready = true;
+                    markReady();
+                } else {
+                    offerStdoutLine(line);
                 }
-                return line;
-            } catch (IOException e) {
-                return null;
             }
-        });
-
+        } catch (IOException ignored) {
+        } catch (InterruptedException e) {
+            return;
+        }
         try {
-            String result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
-            if (result == null) {
-                timedOut = true;
-                throw new TimeoutException("Player " + playerId + " disconnected");
-            }
-            return result;
-        } catch (TimeoutException e) {
-            future.cancel(true);
-            timedOut = true;
-            throw e;
-        } catch (InterruptedException | ExecutionException e) {
-            timedOut = true;
-            throw new TimeoutException("Player " + playerId + " error: " + e.getMessage());
+            closeStdout();
+        } catch (InterruptedException ignored) {
         }
     }
 
-    public String getStdout() {
-        synchronized (stdoutBuffer) {
-            return stdoutBuffer.toString();
-        }
+    private void pumpStderr() {
+        try {
+            String line;
+            while ((line = stderrReader.readLine()) != null) {
+                appendStderr(line);
+            }
+        } catch (IOException ignored) { }
     }
 
-    public String getStderr() {
-        synchronized (stderrBuffer) {
-            return stderrBuffer.toString();
-        }
+    public Process getProcess() {
+        return process;
     }
 
-    public void clearOutput() {
-        synchronized (stdoutBuffer) {
-            stdoutBuffer.setLength(0);
-        }
-        synchronized (stderrBuffer) {
-            stderrBuffer.setLength(0);
-        }
+    @Override
+    public void sendLine(String line) {
+        stdinWriter.println(line);
+        stdinWriter.flush();
     }
 
-    public boolean isTimedOut() {
-        return timedOut;
+    @Override
+    public void sendBytes(byte[] bytes, int length) {
+        try {
+            stdin.write(bytes, 0, length);
+            stdin.flush();
+        } catch (IOException ignored) {
+            // A dead bot surfaces as a timeout when its answer is read
+        }
     }
 
+    /**
+     * Close the streams and stop the pumps. The process itself is killed by the
+     * {@link ProcessSupervisor.Group} it is tracked in, together with its descendants.
+     */
+    @Override
     public void destroy() {
         try {
-            executor.shutdownNow();
             stdinWriter.close();
+            stdoutPump.interrupt();
+            stderrPump.interrupt();
             stdoutReader.close();
             stderrReader.close();
-            process.destroyForcibly();
         } catch (IOException e) {
             System.err.println("Error closing player process: " + e.getMessage());
         }
     }
-
-    /**
-     * Check if there is more output available to read without blocking
-     */
-    public boolean hasMoreOutput() throws IOException {
-        return stdoutReader.ready();
-    }
-
-    /**
-     * Read a line from stdout without blocking if available
-     * 
-     * @return the line read, or null if no line is available
-     */
-    public String readLineNonBlocking() throws IOException {
-        if (stdoutReader.ready()) {
-            String line = stdoutReader.readLine();
-            if (line != null) {
-                synchronized (stdoutBuffer) {
-                    stdoutBuffer.append(line).append("\n");
-                }
-            }
-            return line;
-        }
-        return null;
-    }
-
-    /**
-     * Drain all available output from stdout buffer
-     * This prevents buffer accumulation when player outputs multiple lines
-     */
-    public void drainStdout() throws IOException {
-        while (stdoutReader.ready()) {
-            readLineNonBlocking();
-        }
-    }
 }
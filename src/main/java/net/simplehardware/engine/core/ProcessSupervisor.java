@@ -0,0 +1,132 @@
+package net.simplehardware.engine.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the bot processes started for each game.
+ * Closing a game's {@link Group} force-kills every tracked process together with all of its
+ * descendants and waits for them to exit. Processes still alive after that are counted as leaked
+ * until the OS finally reaps them.
+ */
+public class ProcessSupervisor {
+    private static final long REAP_TIMEOUT_MS = 2000;
+
+    private final Set<Group> groups = ConcurrentHashMap.newKeySet();
+    private final Set<ProcessHandle> leaked = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start tracking the processes of one game
+     */
+    public Group openGroup(String name) {
+        Group group = new Group(name);
+        groups.add(group);
+        return group;
+    }
+
+    /**
+     * Bot processes of running games that are still alive
+     */
+    public int getLiveCount() {
+        int live = 0;
+        for (Group group : groups) {
+            live += group.getLiveCount();
+        }
+        return live;
+    }
+
+    /**
+     * Processes of finished games that did not exit when they were killed
+     */
+    public int getLeakedCount() {
+        leaked.removeIf(handle -> !handle.isAlive());
+        return leaked.size();
+    }
+
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    /**
+     * Processes belonging to one game
+     */
+    public class Group implements AutoCloseable {
+        private final String name;
+        private final List<Process> processes = new ArrayList<>();
+        private boolean closed;
+
+        private Group(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Track a process, it is killed right away if the group is already closed
+         */
+        public synchronized void track(Process process) {
+            if (closed) {
+                destroyTree(process.toHandle());
+                return;
+            }
+            processes.add(process);
+        }
+
+        synchronized int getLiveCount() {
+            int live = 0;
+            for (Process process : processes) {
+                if (process.isAlive()) {
+                    live++;
+                }
+            }
+            return live;
+        }
+
+        /**
+         * Kill and reap every tracked process and its descendants
+         */
+        @Override
+        public void close() {
+            List<ProcessHandle> handles = new ArrayList<>();
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                for (Process process : processes) {
+                    // Collect descendants first, they are reparented once the bot JVM is gone
+                    process.descendants().forEach(handles::add);
+                    handles.add(process.toHandle());
+                }
+                processes.clear();
+            }
+            for (ProcessHandle handle : handles) {
+                handle.destroyForcibly();
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REAP_TIMEOUT_MS);
+            for (ProcessHandle handle : handles) {
+                long remaining = deadline - System.nanoTime();
+                try {
+                    if (remaining > 0) {
+                        handle.onExit().get(remaining, TimeUnit.NANOSECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception ignored) {
+                }
+                if (handle.isAlive()) {
+                    leaked.add(handle);
+                    System.err.println("Bot process " + handle.pid() + " of " + name + " did not exit after kill");
+                }
+            }
+            groups.remove(this);
+        }
+
+        private void destroyTree(ProcessHandle handle) {
+            handle.descendants().forEach(ProcessHandle::destroyForcibly);
+            handle.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.game.ActionResult;
+import net.simplehardware.engine.game.Direction;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.players.Player;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes the six turn lines sent to a bot straight into a reusable ASCII byte buffer.
+ * Cell tokens are pre-encoded, so a turn is built without intermediate Strings and sent
+ * with one write.
+ */
+public class ProtocolEncoder {
+    private static final byte[] OK = ascii("OK");
+    private static final byte[] NOK = ascii("NOK");
+    private static final byte[] WALL = ascii("WALL");
+    private static final byte[] FLOOR = ascii("FLOOR");
+    private static final byte[] SHEET = ascii("SHEET");
+    private static final byte[] FORM = ascii("FORM ");
+    private static final byte[] FINISH = ascii("FINISH ");
+    private static final byte[] OPPONENT = ascii(" !");
+
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    /**
+     * Encode the turn data for a player: last result, current cell and the four neighbours
+     */
+    public ProtocolEncoder encodeTurn(ActionResult lastResult, Maze maze, Player player, int leagueLevel) {
+        length = 0;
+        appendResult(lastResult);
+        appendCell(maze, player.getX(), player.getY(), player, null, leagueLevel);
+        for (Direction dir : Direction.values()) {
+            appendCell(maze, player.getX() + dir.getDx(), player.getY() + dir.getDy(), player, dir, leagueLevel);
+        }
+        return this;
+    }
+
+    private void appendResult(ActionResult result) {
+        append(result.success() ? OK : NOK);
+        String details = result.details();
+        if (details != null && !details.isEmpty()) {
+            appendByte(' ');
+            ensureCapacity(details.length());
+            for (int i = 0; i < details.length(); i++) {
+                buffer[length++] = (byte) details.charAt(i);
+            }
+        }
+        appendByte('\n');
+    }
+
+    /**
+     * Same content as {@link Maze#getCellInfo}, written as bytes
+     */
+    private void appendCell(Maze maze, int x, int y, Player player, Direction dir, int leagueLevel) {
+        if (!maze.isInside(x, y)) {
+            append(WALL);
+            appendByte('\n');
+            return;
+        }
+
+        switch (maze.getType(x, y)) {
+            case Maze.TYPE_FINISH -> {
+                int owner = maze.getFinishOwner(x, y);
+                append(FINISH);
+                appendInt(owner);
+                appendByte(' ');
+                appendInt(maze.getRequiredFormCount(owner));
+            }
+            case Maze.TYPE_FLOOR -> {
+                char form = maze.getForm(x, y);
+                if (form != 0) {
+                    append(FORM);
+                    appendInt(maze.getFormOwner(x, y));
+                    appendByte(' ');
+                    appendInt(form - 'A' + 1);
+                } else {
+                    append(maze.hasSheet(x, y) ? SHEET : FLOOR);
+                }
+            }
+            default -> append(WALL);
+        }
+
+        if (leagueLevel >= 3) {
+            if (maze.hasOpponent(x, y, player)) {
+                append(OPPONENT);
+            } else if (dir != null) {
+                int distance = maze.getOccupancy().rayDistance(x, y, dir);
+                if (distance > 0) {
+                    append(OPPONENT);
+                    appendInt(distance);
+                }
+            }
+        }
+        appendByte('\n');
+    }
+
+    private void append(byte[] token) {
+        ensureCapacity(token.length);
+        System.arraycopy(token, 0, buffer, length, token.length);
+        length += token.length;
+    }
+
+    private void appendByte(char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void appendInt(int value) {
+        if (value < 0) {
+            appendByte('-');
+            value = -value;
+        }
+        if (value < 10) {
+            appendByte((char) ('0' + value));
+            return;
+        }
+        int digits = 0;
+        for (int v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    /**
+     * Encoded bytes, valid up to {@link #length()} until the next encode call
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] ascii(String token) {
+        return token.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,57 @@
+package net.simplehardware.engine.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bot stdin that reports once the bot has read its init lines and asks for more input.
+ * At that point the bot is done with its own set-up and waits for the first turn, so the
+ * time it spent on start-up does not count against that turn. Reading ahead, as a
+ * BufferedReader does, is fine: the signal fires on the first read after the init lines
+ * were handed out, not when they were parsed.
+ */
+final class ReadySignalInputStream extends FilterInputStream {
+    /** Lines the engine sends before the first turn, see {@link GameEngine#initialize()} */
+    static final int INIT_LINES = 2;
+
+    private final Runnable onReady;
+    private int linesRead;
+    private boolean signalled;
+
+    ReadySignalInputStream(InputStream in, Runnable onReady) {
+        super(in);
+        this.onReady = onReady;
+    }
+
+    @Override
+    public int read() throws IOException {
+        beforeRead();
+        int b = super.read();
+        if (b == '\n') {
+            linesRead++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        beforeRead();
+        int count = super.read(b, off, len);
+        if (!signalled) {
+            for (int i = off; i < off + count; i++) {
+                if (b[i] == '\n') {
+                    linesRead++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void beforeRead() {
+        if (!signalled && linesRead >= INIT_LINES) {
+            signalled = true;
+            onReady.run();
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package net.simplehardware.engine.core;
 
-import net.simplehardware.engine.cells.Cell;
-import net.simplehardware.engine.cells.FloorCell;
-import net.simplehardware.engine.cells.FinishCell;
 import net.simplehardware.engine.game.ActionName;
 import net.simplehardware.engine.game.ActionResult;
 import net.simplehardware.engine.game.Direction;
@@ -20,13 +17,15 @@ public class Referee {
     private final int leagueLevel;
     private int currentTurn;
     private final boolean debug;
+    private final GameLog log;
 
-    public Referee(Maze maze, List<Player> players, int leagueLevel, boolean debug) {
+    public Referee(Maze maze, List<Player> players, int leagueLevel, boolean debug, GameLog log) {
         this.maze = maze;
         this.players = players;
         this.leagueLevel = leagueLevel;
         this.currentTurn = 1;
         this.debug = debug;
+        this.log = log;
     }
 
     public ActionResult processAction(Player player, String actionLine) {
@@ -79,11 +78,11 @@ public class Referee {
             int newX = player.getX() + direction.getDx();
             int newY = player.getY() + direction.getDy();
 
-            Cell targetCell = maze.getCell(newX, newY);
-            if (targetCell == null || !targetCell.isWalkable()) {
+            if (!maze.isWalkable(newX, newY)) {
                 return ActionResult.fail("BLOCKED");
             }
 
+            maze.getOccupancy().move(player.getX(), player.getY(), newX, newY);
             player.setPosition(newX, newY);
 
             return ActionResult.ok(direction.name());
@@ -105,21 +104,22 @@ public class Referee {
             return ActionResult.fail("TAKING");
         }
 
-        Cell cell = maze.getCell(player.getX(), player.getY());
-        if (!(cell instanceof FloorCell floor)) {
+        int x = player.getX();
+        int y = player.getY();
+        if (!maze.isFloor(x, y)) {
             return ActionResult.fail("EMPTY");
         }
 
-        if (leagueLevel >= 5 && floor.hasSheet()) {
+        if (leagueLevel >= 5 && maze.hasSheet(x, y)) {
             player.addSheet();
-            floor.setSheet(false);
+            maze.setSheet(x, y, false);
             player.setTaking(true);
             return ActionResult.ok("SHEET");
         }
 
-        if (leagueLevel >= 2 && floor.getForm() != null) {
-            char form = floor.getForm();
-            int formOwner = floor.getFormOwner();
+        char form = maze.getForm(x, y);
+        if (leagueLevel >= 2 && form != 0) {
+            int formOwner = maze.getFormOwner(x, y);
 
             if (formOwner != player.getId()) {
                 return ActionResult.fail("NOTYOURS");
@@ -131,7 +131,7 @@ public class Referee {
             }
 
             player.addForm(form);
-            floor.removeForm();
+            maze.removeForm(x, y);
             return ActionResult.ok("FORM");
         }
 
@@ -157,34 +157,34 @@ public class Referee {
 
         try {
             Direction direction = Direction.fromString(parts[1]);
-            Cell currentCell = maze.getCell(player.getX(), player.getY());
-            if (!(currentCell instanceof FloorCell floor)) {
+            int x = player.getX();
+            int y = player.getY();
+            if (!maze.isFloor(x, y)) {
                 return ActionResult.fail("EMPTY");
             }
 
-            int targetX = player.getX() + direction.getDx();
-            int targetY = player.getY() + direction.getDy();
-            Cell targetCell = maze.getCell(targetX, targetY);
-
-            if (!(targetCell instanceof FloorCell targetFloor)) {
+            int targetX = x + direction.getDx();
+            int targetY = y + direction.getDy();
+            if (!maze.isFloor(targetX, targetY)) {
                 return ActionResult.fail("BLOCKED");
             }
 
-            if (leagueLevel >= 5 && floor.hasSheet()) {
-                if (targetFloor.hasSheet()) {
+            if (leagueLevel >= 5 && maze.hasSheet(x, y)) {
+                if (maze.hasSheet(targetX, targetY)) {
                     return ActionResult.fail("BLOCKED");
                 }
-                targetFloor.setSheet(true);
-                floor.setSheet(false);
+                maze.setSheet(targetX, targetY, true);
+                maze.setSheet(x, y, false);
                 return ActionResult.ok(direction.name());
             }
 
-            if (floor.getForm() != null) {
-                if (targetFloor.getForm() != null) {
+            char form = maze.getForm(x, y);
+            if (form != 0) {
+                if (maze.getForm(targetX, targetY) != 0) {
                     return ActionResult.fail("BLOCKED");
                 }
-                targetFloor.setForm(floor.getForm(), floor.getFormOwner());
-                floor.removeForm();
+                maze.setForm(targetX, targetY, form, maze.getFormOwner(x, y));
+                maze.removeForm(x, y);
                 return ActionResult.ok(direction.name());
             }
 
@@ -211,17 +211,14 @@ public class Referee {
             return ActionResult.fail("EMPTY");
         }
 
-        Cell cell = maze.getCell(player.getX(), player.getY());
-        if (!(cell instanceof FloorCell floor)) {
-            return ActionResult.fail("BLOCKED");
-        }
-
-        if (floor.hasSheet()) {
+        int x = player.getX();
+        int y = player.getY();
+        if (!maze.isFloor(x, y) || maze.hasSheet(x, y)) {
             return ActionResult.fail("BLOCKED");
         }
 
         player.removeSheet();
-        floor.setSheet(true);
+        maze.setSheet(x, y, true);
         return ActionResult.ok("");
     }
 
@@ -230,15 +227,15 @@ public class Referee {
             return ActionResult.fail("FORM");
         }
 
-        Cell cell = maze.getCell(player.getX(), player.getY());
-        if (!(cell instanceof FinishCell finish)) {
+        if (maze.getType(player.getX(), player.getY()) != Maze.TYPE_FINISH) {
             return ActionResult.fail("BLOCKED");
         }
 
-        if (finish.getPlayerId() != player.getId()) {
+        if (maze.getFinishOwner(player.getX(), player.getY()) != player.getId()) {
             return ActionResult.fail("NOTYOURS");
         }
 
+        maze.getOccupancy().remove(player.getX(), player.getY());
         player.setFinished(true);
         return ActionResult.ok("");
     }
@@ -255,25 +252,11 @@ public class Referee {
 
                 if (p.isTalking()) {
                     p.setTalking(false);
-                } else {
-                    boolean collision = false;
-                    for (Player other : players) {
-                        if (other.getId() != p.getId() && other.isActive() &&
-                                other.getX() == p.getX() && other.getY() == p.getY()) {
-                            collision = true;
-                            if (debug) {
-                                System.out.println("Collision detected:");
-                                System.out.println("  Player " + p.getId() + " at (" + p.getX() + "," + p.getY() + ")");
-                                System.out.println("  Player " + other.getId() + " at (" + other.getX() + ","
-                                        + other.getY() + ")");
-                                System.out.println("  Both players will be TALKING next turn");
-                            }
-                            break;
-                        }
-                    }
-                    if (collision) {
-                        p.setTalking(true);
+                } else if (maze.getOccupancy().count(p.getX(), p.getY()) > 1) {
+                    if (debug) {
+                        logCollision(p);
                     }
+                    p.setTalking(true);
                 }
             }
         }
@@ -286,6 +269,19 @@ public class Referee {
         }
     }
 
+    private void logCollision(Player p) {
+        for (Player other : players) {
+            if (other.getId() != p.getId() && other.isActive() &&
+                    other.getX() == p.getX() && other.getY() == p.getY()) {
+                log.info("Collision detected:");
+                log.info("  Player " + p.getId() + " at (" + p.getX() + "," + p.getY() + ")");
+                log.info("  Player " + other.getId() + " at (" + other.getX() + "," + other.getY() + ")");
+                log.info("  Both players will be TALKING next turn");
+                return;
+            }
+        }
+    }
+
     public int getCurrentTurn() {
         return currentTurn;
     }
@@ -0,0 +1,151 @@
+package net.simplehardware.engine.game;
+
+import net.simplehardware.models.FormInfo;
+import net.simplehardware.models.MazeInfoData;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed maze layout that any number of games can share, never changed after {@link #compile}.
+ * Besides the cell arrays it keeps the cells of forms and finish cells per owner and the start
+ * positions, so setting up a game does not scan the grid. Games play on a {@link Maze} created
+ * from it, which copies the cells on its first change.
+ */
+public final class CompiledMaze {
+    /** Player ids are single digits in the maze format */
+    static final int MAX_PLAYER_ID = 9;
+    private static final int[] NO_CELLS = new int[0];
+
+    final MazeInfoData data;
+    final String name;
+    final List<FormInfo> forms;
+    final int width;
+    final int height;
+    final byte[] types;
+    final BitSet walkable;
+    final BitSet sheets;
+    /** Form letter per cell, 0 if none */
+    final char[] formLetters;
+    /** Form owner for form cells, finish owner for finish cells */
+    final byte[] owners;
+    /** Start {x, y} per player id, null if the maze has none */
+    final int[][] starts = new int[MAX_PLAYER_ID + 1][];
+    /** Cell indexes of the forms and finish cells of each player id, in grid order */
+    final int[][] formCells = new int[MAX_PLAYER_ID + 1][];
+    final int[][] finishCells = new int[MAX_PLAYER_ID + 1][];
+
+    private CompiledMaze(MazeInfoData data) {
+        this.data = data;
+        this.name = data.name;
+        this.forms = data.forms != null ? Collections.unmodifiableList(new ArrayList<>(data.forms)) : List.of();
+
+        String[] rows = data.maze.split("/");
+        this.height = rows.length;
+        this.width = rows[0].length() / 2; // Each cell is 2 characters
+
+        int size = width * height;
+        this.types = new byte[size];
+        this.walkable = new BitSet(size);
+        this.sheets = new BitSet(size);
+        this.formLetters = new char[size];
+        this.owners = new byte[size];
+        parseMaze(rows);
+    }
+
+    /**
+     * Parse a maze in one pass over its rows
+     */
+    public static CompiledMaze compile(MazeInfoData data) {
+        return new CompiledMaze(data);
+    }
+
+    private void parseMaze(String[] rows) {
+        List<List<Integer>> forms = new ArrayList<>();
+        List<List<Integer>> finishes = new ArrayList<>();
+        for (int id = 0; id <= MAX_PLAYER_ID; id++) {
+            forms.add(new ArrayList<>());
+            finishes.add(new ArrayList<>());
+        }
+
+        for (int y = 0; y < height; y++) {
+            String row = rows[y];
+            for (int x = 0; x < width; x++) {
+                int charIndex = x * 2;
+                if (charIndex >= row.length())
+                    break;
+
+                char cellType = row.charAt(charIndex);
+                char cellData = row.charAt(charIndex + 1);
+                int playerId = Character.isDigit(cellData) ? cellData - '0' : 0;
+
+                int i = y * width + x;
+                parseCell(i, cellType, playerId);
+                if (cellType == '@') {
+                    starts[playerId] = new int[] { x, y };
+                } else if (types[i] == Maze.TYPE_FINISH) {
+                    finishes.get(playerId).add(i);
+                } else if (formLetters[i] != 0) {
+                    forms.get(playerId).add(i);
+                }
+            }
+        }
+
+        for (int id = 0; id <= MAX_PLAYER_ID; id++) {
+            formCells[id] = toArray(forms.get(id));
+            finishCells[id] = toArray(finishes.get(id));
+        }
+    }
+
+    private void parseCell(int i, char type, int playerId) {
+        switch (type) {
+            case '#' -> types[i] = Maze.TYPE_WALL;
+            case '!' -> {
+                types[i] = Maze.TYPE_FINISH;
+                owners[i] = (byte) playerId;
+                walkable.set(i);
+            }
+            case 'S' -> {
+                types[i] = Maze.TYPE_FLOOR;
+                walkable.set(i);
+                sheets.set(i);
+            }
+            default -> {
+                types[i] = Maze.TYPE_FLOOR;
+                walkable.set(i);
+                if (Character.isLetter(type) && Character.isUpperCase(type)) {
+                    formLetters[i] = type;
+                    owners[i] = (byte) playerId;
+                }
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> cells) {
+        if (cells.isEmpty()) {
+            return NO_CELLS;
+        }
+        return cells.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Maze file contents this was compiled from, must not be modified
+     */
+    public MazeInfoData getData() {
+        return data;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
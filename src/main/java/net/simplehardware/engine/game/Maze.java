@@ -9,76 +9,82 @@ import net.simplehardware.models.FormInfo;
 import net.simplehardware.models.MazeInfoData;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Represents the maze structure and layout
+ * Represents the maze structure and layout.
+ * Cells are stored as flat primitive arrays indexed by {@code y * width + x};
+ * {@link #getCell(int, int)} hands out {@link Cell} views over them for the viewer code.
+ * The arrays start out shared with the {@link CompiledMaze} and are copied on the first change.
  */
 public class Maze {
+    public static final byte TYPE_WALL = 0;
+    public static final byte TYPE_FLOOR = 1;
+    public static final byte TYPE_FINISH = 2;
+
+    private static final int MAX_PLAYER_ID = CompiledMaze.MAX_PLAYER_ID;
+
+    private final CompiledMaze compiled;
     private final int width;
     private final int height;
-    private final Cell[][] cells;
     private final String name;
     private final List<FormInfo> forms;
     private final Map<Integer, int[]> startPositions = new HashMap<>();
+    private final BitSet changedCells = new BitSet();
+
+    /** Whether the cell arrays below are still the compiled maze's */
+    private boolean shared = true;
+    private byte[] types;
+    private final BitSet walkable;
+    private BitSet sheets;
+    /** Form letter per cell, 0 if none */
+    private char[] formLetters;
+    /** Form owner for form cells, finish owner for finish cells */
+    private byte[] owners;
+    private final int[] requiredFormCounts = new int[MAX_PLAYER_ID + 1];
+    private final OccupancyGrid occupancy;
 
     public Maze(MazeInfoData data) {
-        this.name = data.name;
-        this.forms = data.forms != null ? data.forms : new ArrayList<>();
-
-        String[] rows = data.maze.split("/");
-        this.height = rows.length;
-        this.width = rows[0].length() / 2; // Each cell is 2 characters
-        this.cells = new Cell[width][height];
-
-        parseMaze(rows);
+        this(CompiledMaze.compile(data));
     }
 
-    private void parseMaze(String[] rows) {
-        for (int y = 0; y < height; y++) {
-            String row = rows[y];
-            for (int x = 0; x < width; x++) {
-                int charIndex = x * 2;
-                if (charIndex >= row.length())
-                    break;
-
-                char cellType = row.charAt(charIndex);
-                char cellData = row.charAt(charIndex + 1);
-                int playerId = Character.isDigit(cellData) ? cellData - '0' : 0;
-
-                Cell cell = createCell(x, y, cellType, playerId);
-                cells[x][y] = cell;
-                if (cellType == '@') {
-                    startPositions.put(playerId, new int[] { x, y });
-                }
+    /**
+     * Maze for one game on a shared compiled maze
+     */
+    public Maze(CompiledMaze compiled) {
+        this.compiled = compiled;
+        this.name = compiled.name;
+        this.forms = compiled.forms;
+        this.width = compiled.width;
+        this.height = compiled.height;
+        this.types = compiled.types;
+        this.walkable = compiled.walkable;
+        this.sheets = compiled.sheets;
+        this.formLetters = compiled.formLetters;
+        this.owners = compiled.owners;
+        for (int id = 0; id <= MAX_PLAYER_ID; id++) {
+            if (compiled.starts[id] != null) {
+                startPositions.put(id, compiled.starts[id].clone());
             }
         }
+        this.occupancy = new OccupancyGrid(this);
     }
 
-    private Cell createCell(int x, int y, char type, int playerId) {
-        return switch (type) {
-            case '#' -> new WallCell(x, y);
-            case '@' -> {
-                startPositions.put(playerId, new int[] { x, y });
-                yield new FloorCell(x, y);
-            }
-            case '!' -> new FinishCell(x, y, playerId);
-            case 'S' -> {
-                FloorCell floor = new FloorCell(x, y);
-                floor.setSheet(true);
-                yield floor;
-            }
-            default -> {
-                if (Character.isLetter(type) && Character.isUpperCase(type)) {
-                    FloorCell floor = new FloorCell(x, y);
-                    floor.setForm(type, playerId);
-                    yield floor;
-                }
-                yield new FloorCell(x, y);
-            }
-        };
+    /**
+     * Copy the cell arrays before the first change, the compiled maze is shared with other games
+     */
+    private void ownCells() {
+        if (!shared) {
+            return;
+        }
+        types = types.clone();
+        sheets = (BitSet) sheets.clone();
+        formLetters = formLetters.clone();
+        owners = owners.clone();
+        shared = false;
     }
 
     public int getWidth() {
@@ -89,11 +95,111 @@ public class Maze {
         return height;
     }
 
+    public boolean isInside(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * View of a single cell, allocated on each call; game logic uses the primitive accessors instead
+     */
     public Cell getCell(int x, int y) {
-        if (x < 0 || x >= width || y < 0 || y >= height) {
+        if (!isInside(x, y)) {
             return null;
         }
-        return cells[x][y];
+        return switch (types[y * width + x]) {
+            case TYPE_FLOOR -> new FloorCell(this, x, y);
+            case TYPE_FINISH -> new FinishCell(this, x, y);
+            default -> new WallCell(this, x, y);
+        };
+    }
+
+    /**
+     * Cell type, {@link #TYPE_WALL} outside the maze
+     */
+    public byte getType(int x, int y) {
+        return isInside(x, y) ? types[y * width + x] : TYPE_WALL;
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return isInside(x, y) && walkable.get(y * width + x);
+    }
+
+    public boolean isFloor(int x, int y) {
+        return getType(x, y) == TYPE_FLOOR;
+    }
+
+    public boolean hasSheet(int x, int y) {
+        return isInside(x, y) && sheets.get(y * width + x);
+    }
+
+    public void setSheet(int x, int y, boolean sheet) {
+        ownCells();
+        int i = y * width + x;
+        sheets.set(i, sheet);
+        changedCells.set(i);
+    }
+
+    /**
+     * Form letter on a floor cell, 0 if there is none
+     */
+    public char getForm(int x, int y) {
+        return isInside(x, y) ? formLetters[y * width + x] : 0;
+    }
+
+    public int getFormOwner(int x, int y) {
+        int i = y * width + x;
+        return formLetters[i] != 0 ? owners[i] : 0;
+    }
+
+    public void setForm(int x, int y, char form, int owner) {
+        ownCells();
+        int i = y * width + x;
+        formLetters[i] = form;
+        owners[i] = (byte) owner;
+        changedCells.set(i);
+    }
+
+    public void removeForm(int x, int y) {
+        ownCells();
+        int i = y * width + x;
+        formLetters[i] = 0;
+        owners[i] = 0;
+        changedCells.set(i);
+    }
+
+    /**
+     * Owner of a finish cell, 0 for any other cell
+     */
+    public int getFinishOwner(int x, int y) {
+        int i = y * width + x;
+        return isInside(x, y) && types[i] == TYPE_FINISH ? owners[i] : 0;
+    }
+
+    public int getRequiredFormCount(int playerId) {
+        return requiredFormCounts[playerId];
+    }
+
+    public void setRequiredFormCount(int playerId, int count) {
+        requiredFormCounts[playerId] = count;
+    }
+
+    /**
+     * Mark a cell whose content changed, so the next history snapshot records it
+     */
+    public void markChanged(int x, int y) {
+        changedCells.set(y * width + x);
+    }
+
+    /**
+     * Return the cells changed since the last call as {x, y} pairs and reset the tracking
+     */
+    public List<int[]> drainChangedCells() {
+        List<int[]> changed = new ArrayList<>(changedCells.cardinality());
+        for (int i = changedCells.nextSetBit(0); i >= 0; i = changedCells.nextSetBit(i + 1)) {
+            changed.add(new int[] { i % width, i / width });
+        }
+        changedCells.clear();
+        return changed;
     }
 
     public int[] getStartPosition(int playerId) {
@@ -108,144 +214,155 @@ public class Maze {
         return name;
     }
 
+    /**
+     * Distinct form letters left on the form cells the compiled maze lists for a player, in order.
+     * Meant for game setup, forms placed during the game are not seen.
+     */
+    public List<Character> getFormLetters(int playerId) {
+        List<Character> letters = new ArrayList<>();
+        if (playerId < 0 || playerId > MAX_PLAYER_ID) {
+            return letters;
+        }
+        for (int i : compiled.formCells[playerId]) {
+            char form = formLetters[i];
+            if (form != 0 && owners[i] == playerId && !letters.contains(form)) {
+                letters.add(form);
+            }
+        }
+        letters.sort(Character::compareTo);
+        return letters;
+    }
+
     public List<FormInfo> getForms() {
         return forms;
     }
 
+    public OccupancyGrid getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Protocol cell type name
+     */
+    public String getCellType(int x, int y) {
+        int i = y * width + x;
+        return switch (types[i]) {
+            case TYPE_FINISH -> "FINISH";
+            case TYPE_FLOOR -> formLetters[i] != 0 ? "FORM" : sheets.get(i) ? "SHEET" : "FLOOR";
+            default -> "WALL";
+        };
+    }
+
+    /**
+     * Protocol cell details, e.g. owner and form number, empty if the cell has none
+     */
+    public String getCellDetails(int x, int y) {
+        int i = y * width + x;
+        if (types[i] == TYPE_FINISH) {
+            return owners[i] + " " + requiredFormCounts[owners[i]];
+        }
+        if (types[i] == TYPE_FLOOR && formLetters[i] != 0) {
+            return owners[i] + " " + (formLetters[i] - 'A' + 1);
+        }
+        return "";
+    }
+
     /**
      * Get cell information including opponent proximity
-     * 
+     *
      * @param dir The direction we are looking in (null for current cell)
      */
-    public String getCellInfo(int x, int y, List<Player> allPlayers, Player currentPlayer, Direction dir,
-            int leagueLevel) {
-        Cell cell = getCell(x, y);
-        if (cell == null) {
+    public String getCellInfo(int x, int y, Player currentPlayer, Direction dir, int leagueLevel) {
+        if (!isInside(x, y)) {
             return "WALL";
         }
 
-        StringBuilder info = new StringBuilder(cell.getCellType());
-        String details = cell.getCellDetails();
+        StringBuilder info = new StringBuilder(getCellType(x, y));
+        String details = getCellDetails(x, y);
         if (!details.isEmpty()) {
             info.append(" ").append(details);
         }
 
         // Add opponent proximity indicator (Level 3+)
         if (leagueLevel >= 3) {
-            if (hasOpponent(x, y, allPlayers, currentPlayer)) {
+            if (hasOpponent(x, y, currentPlayer)) {
                 info.append(" !");
             } else if (dir != null) {
-                int distance = findOpponentInDirection(x, y, dir, allPlayers, currentPlayer);
+                int distance = occupancy.rayDistance(x, y, dir);
                 if (distance > 0) { info.append(" !").append(distance); }
             }
         }
         return info.toString();
     }
 
-    private boolean hasOpponent(int x, int y, List<Player> allPlayers, Player currentPlayer) {
-        for (Player player : allPlayers) {
-            if (player.getId() != currentPlayer.getId() && player.isActive() &&
-                    player.getX() == x && player.getY() == y) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private int findOpponentInDirection(int startX, int startY, Direction dir, List<Player> allPlayers,
-            Player currentPlayer) {
-        int dx = dir.getDx();
-        int dy = dir.getDy();
-
-        int checkX = startX + dx;
-        int checkY = startY + dy;
-        int distance = 1;
-
-        while (checkX >= 0 && checkX < width && checkY >= 0 && checkY < height) {
-            Cell cell = cells[checkX][checkY];
-            if (cell instanceof WallCell) {
-                break;
-            }
-            if (hasOpponent(checkX, checkY, allPlayers, currentPlayer)) return distance;
-            checkX += dx;
-            checkY += dy;
-            distance++;
+    /**
+     * Check if an active player other than the current one stands on the cell
+     */
+    public boolean hasOpponent(int x, int y, Player currentPlayer) {
+        int count = occupancy.count(x, y);
+        if (currentPlayer.isActive() && currentPlayer.getX() == x && currentPlayer.getY() == y) {
+            count--;
         }
-
-        return 0; // No opponent found
+        return count > 0;
     }
 
     /**
      * Update finish cells with required form counts based on player assignments
      */
     public void updateFinishCells(List<Player> players) {
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Cell cell = cells[x][y];
-                if (cell instanceof FinishCell finishCell) {
-                    int playerId = finishCell.getPlayerId();
-                    for (Player player : players) {
-                        if (player.getId() == playerId) {
-                            finishCell.setRequiredFormCount(player.getAssignedForms().size());
-                            break;
-                        }
-                    }
-                }
+        for (Player player : players) {
+            if (player.getId() >= 0 && player.getId() <= MAX_PLAYER_ID) {
+                requiredFormCounts[player.getId()] = player.getAssignedForms().size();
             }
         }
     }
 
     /**
-     * Remove forms and finish cells for players that aren't loaded
+     * Remove forms and finish cells for players that aren't loaded.
+     * Only the cells the compiled maze lists for those players are visited.
      */
     public void removeUnusedPlayerCells(List<Player> players) {
-        java.util.Set<Integer> loadedPlayerIds = new java.util.HashSet<>();
+        boolean[] loaded = new boolean[MAX_PLAYER_ID + 1];
+        java.util.Set<Integer> loadedPlayerIds = new java.util.TreeSet<>();
         for (Player player : players) {
             loadedPlayerIds.add(player.getId());
+            if (player.getId() >= 0 && player.getId() <= MAX_PLAYER_ID) {
+                loaded[player.getId()] = true;
+            }
         }
 
         System.out.println("Loaded player IDs: " + loadedPlayerIds);
         int formsRemoved = 0;
         int finishRemoved = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Cell cell = cells[x][y];
-
-                if (cell instanceof FinishCell finishCell) {
-                    if (!loadedPlayerIds.contains(finishCell.getPlayerId())) {
-                        cells[x][y] = new FloorCell(x, y);
-                        finishRemoved++;
+        int remainingForms = 0;
+        for (int id = 0; id <= MAX_PLAYER_ID; id++) {
+            if (loaded[id]) {
+                for (int i : compiled.formCells[id]) {
+                    if (formLetters[i] != 0 && owners[i] == id) {
+                        remainingForms++;
                     }
                 }
-
-                else if (cell instanceof FloorCell floor) {
-                    if (floor.getForm() != null && floor.getFormOwner() != null) {
-                        if (!loadedPlayerIds.contains(floor.getFormOwner())) {
-                            System.out.println("Removing form " + floor.getForm() + " for player "
-                                    + floor.getFormOwner() + " at (" + x + "," + y + ")");
-                            floor.removeForm();
-                            formsRemoved++;
-                        }
-                    }
+                continue;
+            }
+            for (int i : compiled.finishCells[id]) {
+                if (types[i] == TYPE_FINISH) {
+                    ownCells();
+                    types[i] = TYPE_FLOOR;
+                    owners[i] = 0;
+                    finishRemoved++;
                 }
             }
-        }
-        System.out.println(
-                "Removed " + formsRemoved + " forms and " + finishRemoved + " finish cells for unloaded players");
-
-        int remainingForms = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Cell cell = cells[x][y];
-                if (cell instanceof FloorCell floor) {
-                    if (floor.getForm() != null) {
-                        System.out.println("Remaining form: " + floor.getForm() + " for player " + floor.getFormOwner()
-                                + " at (" + x + "," + y + ")");
-                        remainingForms++;
-                    }
+            for (int i : compiled.formCells[id]) {
+                if (formLetters[i] != 0 && owners[i] == id) {
+                    ownCells();
+                    formLetters[i] = 0;
+                    owners[i] = 0;
+                    formsRemoved++;
                 }
             }
         }
+        System.out.println(
+                "Removed " + formsRemoved + " forms and " + finishRemoved + " finish cells for unloaded players");
         System.out.println("Total remaining forms: " + remainingForms);
     }
 
@@ -256,14 +373,13 @@ public class Maze {
         if (level == 1) {
             System.out.println("Applying Level 1 restrictions: Removing all forms");
             int formsRemoved = 0;
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    Cell cell = cells[x][y];
-                    if (cell instanceof FloorCell floor) {
-                        if (floor.getForm() != null) {
-                            floor.removeForm();
-                            formsRemoved++;
-                        }
+            for (int[] cells : compiled.formCells) {
+                for (int i : cells) {
+                    if (formLetters[i] != 0) {
+                        ownCells();
+                        formLetters[i] = 0;
+                        owners[i] = 0;
+                        formsRemoved++;
                     }
                 }
             }
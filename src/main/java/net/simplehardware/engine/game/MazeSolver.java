@@ -0,0 +1,167 @@
+package net.simplehardware.engine.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Exact shortest route of a solo player through its forms in order to its finish.
+ * A BFS distance field is computed from the start and from every form cell, in parallel on a
+ * {@link ForkJoinPool}; the route is then the cheapest chain start, form A, form B, ..., finish
+ * over those fields. If a letter is on several cells every choice is considered.
+ */
+public final class MazeSolver {
+    /** Distance of cells a field does not reach */
+    public static final int UNREACHABLE = -1;
+
+    private MazeSolver() {
+    }
+
+    /**
+     * Fewest actions to finish: one GO per move, one TAKE per form and the final FINISH
+     *
+     * @param moves GO actions along the route
+     * @param forms forms taken on the way
+     */
+    public record Route(int moves, int forms) {
+        public int actions() {
+            return moves + forms + 1;
+        }
+
+        /**
+         * Steps a solo game playing this route reports. Its final turn number is one past the
+         * FINISH turn, e.g. a game that moves once and finishes ends on turn 3.
+         */
+        public int stepsTaken() {
+            return actions() + 1;
+        }
+    }
+
+    public static Route solve(CompiledMaze maze, int playerId) {
+        return solve(maze, playerId, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Shortest route for a player at league level 2 or higher, where forms have to be taken
+     *
+     * @return null if the player has no start or finish, or cannot reach one of them
+     */
+    public static Route solve(CompiledMaze maze, int playerId, ForkJoinPool pool) {
+        if (playerId < 0 || playerId > CompiledMaze.MAX_PLAYER_ID) {
+            return null;
+        }
+        int[] start = maze.starts[playerId];
+        int[] finishes = maze.finishCells[playerId];
+        if (start == null || finishes.length == 0) {
+            return null;
+        }
+
+        // Form cells grouped by letter, in the order they have to be taken
+        List<int[]> layers = new ArrayList<>();
+        int[] formCells = maze.formCells[playerId];
+        char[] order = new char[formCells.length];
+        for (int c = 0; c < formCells.length; c++) {
+            order[c] = maze.formLetters[formCells[c]];
+        }
+        Arrays.sort(order);
+        for (int c = 0; c < order.length; c++) {
+            if (c > 0 && order[c] == order[c - 1]) {
+                continue;
+            }
+            char letter = order[c];
+            layers.add(Arrays.stream(formCells).filter(i -> maze.formLetters[i] == letter).toArray());
+        }
+
+        int startCell = start[1] * maze.width + start[0];
+        List<ForkJoinTask<int[]>> fields = new ArrayList<>();
+        fields.add(pool.submit(() -> distanceField(maze, startCell)));
+        for (int[] layer : layers) {
+            for (int cell : layer) {
+                fields.add(pool.submit(() -> distanceField(maze, cell)));
+            }
+        }
+
+        // Cheapest number of moves to stand on each cell of the current layer
+        int[] sources = { startCell };
+        long[] cost = { 0 };
+        int field = 0;
+        for (int[] layer : layers) {
+            long[] next = new long[layer.length];
+            Arrays.fill(next, Long.MAX_VALUE);
+            for (int s = 0; s < sources.length; s++) {
+                int[] distances = fields.get(field + s).join();
+                relax(cost[s], distances, layer, next);
+            }
+            field += sources.length;
+            sources = layer;
+            cost = next;
+        }
+
+        long[] finishCost = new long[finishes.length];
+        Arrays.fill(finishCost, Long.MAX_VALUE);
+        for (int s = 0; s < sources.length; s++) {
+            relax(cost[s], fields.get(field + s).join(), finishes, finishCost);
+        }
+        long best = Arrays.stream(finishCost).min().orElse(Long.MAX_VALUE);
+        if (best == Long.MAX_VALUE) {
+            return null;
+        }
+        return new Route((int) best, layers.size());
+    }
+
+    /**
+     * Lower the cost of each target reachable from a source
+     */
+    private static void relax(long sourceCost, int[] distances, int[] targets, long[] targetCost) {
+        if (sourceCost == Long.MAX_VALUE) {
+            return;
+        }
+        for (int t = 0; t < targets.length; t++) {
+            int distance = distances[targets[t]];
+            if (distance != UNREACHABLE) {
+                targetCost[t] = Math.min(targetCost[t], sourceCost + distance);
+            }
+        }
+    }
+
+    /**
+     * Moves from a cell to every cell of the maze, {@link #UNREACHABLE} for cells that cannot be reached
+     *
+     * @return distances indexed by {@code y * width + x}
+     */
+    public static int[] distanceField(CompiledMaze maze, int x, int y) {
+        return distanceField(maze, y * maze.width + x);
+    }
+
+    private static int[] distanceField(CompiledMaze maze, int source) {
+        int width = maze.width;
+        int size = width * maze.height;
+        int[] distances = new int[size];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % width;
+            int next = distances[cell] + 1;
+            if (x > 0) tail = visit(maze, cell - 1, next, distances, queue, tail);
+            if (x < width - 1) tail = visit(maze, cell + 1, next, distances, queue, tail);
+            if (cell >= width) tail = visit(maze, cell - width, next, distances, queue, tail);
+            if (cell + width < size) tail = visit(maze, cell + width, next, distances, queue, tail);
+        }
+        return distances;
+    }
+
+    private static int visit(CompiledMaze maze, int cell, int distance, int[] distances, int[] queue, int tail) {
+        if (distances[cell] == UNREACHABLE && maze.walkable.get(cell)) {
+            distances[cell] = distance;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,102 @@
+package net.simplehardware.engine.game;
+
+import net.simplehardware.engine.players.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Number of active players on each maze cell.
+ * Kept up to date by the referee and engine as players move, finish or drop out, so
+ * opponent checks are a single array lookup. Ray distances to the nearest occupied cell
+ * are cached until the next change, which lets all players of a turn share them.
+ */
+public class OccupancyGrid {
+    private final Maze maze;
+    private final int width;
+    private final int[] counts;
+    private final int[][] rayDistances;
+    private final int[][] rayVersions;
+    private int version = 1;
+
+    public OccupancyGrid(Maze maze) {
+        this.maze = maze;
+        this.width = maze.getWidth();
+        int size = width * maze.getHeight();
+        this.counts = new int[size];
+        this.rayDistances = new int[Direction.values().length][size];
+        this.rayVersions = new int[Direction.values().length][size];
+    }
+
+    /**
+     * Reset the grid to the positions of all currently active players
+     */
+    public void rebuild(List<Player> players) {
+        Arrays.fill(counts, 0);
+        for (Player player : players) {
+            if (player.isActive()) {
+                add(player.getX(), player.getY());
+            }
+        }
+        version++;
+    }
+
+    public void add(int x, int y) {
+        if (maze.isInside(x, y)) {
+            counts[y * width + x]++;
+            version++;
+        }
+    }
+
+    public void remove(int x, int y) {
+        if (maze.isInside(x, y) && counts[y * width + x] > 0) {
+            counts[y * width + x]--;
+            version++;
+        }
+    }
+
+    public void move(int fromX, int fromY, int toX, int toY) {
+        remove(fromX, fromY);
+        add(toX, toY);
+    }
+
+    /**
+     * Active players on a cell, 0 outside the maze
+     */
+    public int count(int x, int y) {
+        return maze.isInside(x, y) ? counts[y * width + x] : 0;
+    }
+
+    /**
+     * Distance from (x, y) to the nearest occupied cell in the given direction, not counting
+     * (x, y) itself. The ray stops at walls and the maze edge.
+     *
+     * @return the distance in cells, or 0 if no player is in sight
+     */
+    public int rayDistance(int x, int y, Direction dir) {
+        int i = y * width + x;
+        int d = dir.ordinal();
+        if (rayVersions[d][i] == version) {
+            return rayDistances[d][i];
+        }
+
+        int distance = 0;
+        int checkX = x + dir.getDx();
+        int checkY = y + dir.getDy();
+        for (int step = 1; maze.isInside(checkX, checkY); step++) {
+            if (maze.getType(checkX, checkY) == Maze.TYPE_WALL) {
+                break;
+            }
+            if (counts[checkY * width + checkX] > 0) {
+                distance = step;
+                break;
+            }
+            checkX += dir.getDx();
+            checkY += dir.getDy();
+        }
+
+        rayDistances[d][i] = distance;
+        rayVersions[d][i] = version;
+        return distance;
+    }
+}
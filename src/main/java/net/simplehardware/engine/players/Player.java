@@ -20,6 +20,7 @@ public class Player {
     private boolean finished;
     private boolean active;
     private boolean timedOut;
+    private long timeBankNanos = -1;
     private int score;
     private Direction dir;
 
@@ -172,6 +173,21 @@ public class Player {
         this.timedOut = timedOut;
     }
 
+    /**
+     * Remaining time bank in milliseconds, -1 if the game runs without one
+     */
+    public long getTimeBankMs() {
+        return timeBankNanos < 0 ? -1 : timeBankNanos / 1_000_000;
+    }
+
+    public long getTimeBankNanos() {
+        return timeBankNanos;
+    }
+
+    public void setTimeBankNanos(long timeBankNanos) {
+        this.timeBankNanos = timeBankNanos;
+    }
+
     public int getScore() {
         return score;
     }
@@ -10,7 +10,9 @@ import net.simplehardware.engine.server.handlers.*;
 import net.simplehardware.engine.server.security.SessionManager;
 import net.simplehardware.engine.server.services.AdminMetricsService;
 import net.simplehardware.engine.server.services.GameExecutionService;
+import net.simplehardware.engine.server.services.GameJobService;
 import net.simplehardware.engine.server.services.MazeGenerationService;
+import net.simplehardware.engine.server.services.WorkerDispatcher;
 
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
@@ -34,6 +36,7 @@ public class ServerMode {
     private final SessionManager sessionManager;
     private final MazeGenerationService mazeService;
     private final GameExecutionService gameService;
+    private final GameJobService jobService;
     private final AdminMetricsService metricsService;
     private HttpServer server;
     private final Properties config;
@@ -58,9 +61,11 @@ public class ServerMode {
         this.mazeService = new MazeGenerationService(db, mazeCreatorJar, mazesDir);
 
         String gameDataDir = config.getProperty("game.data.directory", "data/games");
-        this.gameService = new GameExecutionService(db, gameDataDir);
+        this.gameService = new GameExecutionService(db, gameDataDir, config);
+        this.jobService = new GameJobService(db, gameService, config);
 
-        this.metricsService = new AdminMetricsService(db);
+        this.metricsService = new AdminMetricsService(db, gameService.getProcessSupervisor(), jobService,
+                gameService.getWorkerDispatcher());
     }
 
     /**
@@ -99,10 +104,18 @@ public class ServerMode {
         createContext(server, "/api/lobby/list", new LobbyHandler.ListLobbiesHandler(db), debugMode);
         createContext(server, "/api/lobby/join", new LobbyHandler.JoinLobbyHandler(db, sessionManager), debugMode);
         createContext(server, "/api/lobby/leave", new LobbyHandler.LeaveLobbyHandler(db, sessionManager), debugMode);
-        createContext(server, "/api/lobby/start", new LobbyHandler.StartLobbyHandler(db, sessionManager, gameService), debugMode);
+        createContext(server, "/api/lobby/start", new LobbyHandler.StartLobbyHandler(db, sessionManager, jobService), debugMode);
         createContext(server, "/api/lobby/", new LobbyHandler.GetLobbyHandler(db, sessionManager), debugMode);
 
-        createContext(server, "/api/game/play", new GameHandler.PlayGameHandler(db, sessionManager, gameService), debugMode);
+        createContext(server, "/api/game/play", new GameHandler.PlayGameHandler(db, sessionManager, jobService), debugMode);
+        createContext(server, "/api/jobs/", new JobHandler.JobStatusHandler(db, sessionManager, jobService), debugMode);
+        createContext(server, "/api/live/", new LiveHandler(jobService.getLiveGames()), debugMode);
+
+        // Remote game workers
+        String workerToken = config.getProperty("worker.token", "");
+        WorkerDispatcher workerDispatcher = gameService.getWorkerDispatcher();
+        createContext(server, "/api/worker/claim", new WorkerHandler.ClaimHandler(workerToken, workerDispatcher), debugMode);
+        createContext(server, "/api/worker/leases/", new WorkerHandler.LeaseHandler(workerToken, workerDispatcher), debugMode);
         createContext(server, "/api/game-result", new GameHandler.GameResultHandler(db), debugMode);
         createContext(server, "/api/user/history", new GameHandler.UserHistoryHandler(db, sessionManager), debugMode);
         createContext(server, "/api/leaderboard", new LeaderboardHandler(db), debugMode);
@@ -121,6 +134,7 @@ public class ServerMode {
         // File data handlers (serve files by ID instead of direct file access)
         createContext(server, "/api/maze/file", new FileDataHandler.MazeFileHandler(db), debugMode);
         createContext(server, "/api/game/file", new FileDataHandler.GameFileHandler(db), debugMode);
+        createContext(server, "/api/game/turns", new FileDataHandler.GameTurnsHandler(db), debugMode);
 
         // Static file handler for web pages (with authentication)
         createContext(server, "/", new StaticFileHandler(config.getProperty("web.directory", "web"), sessionManager, db), debugMode);
@@ -148,6 +162,13 @@ public class ServerMode {
         // Start metrics collection
         metricsService.start();
 
+        // Run games queued before the last shutdown
+        try {
+            jobService.start();
+        } catch (java.sql.SQLException e) {
+            System.err.println("Failed to resume game jobs: " + e.getMessage());
+        }
+
         // Add shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
     }
@@ -174,6 +195,7 @@ public class ServerMode {
         }
 
         mazeService.stop();
+        jobService.shutdown();
         gameService.shutdown();
         metricsService.shutdown();
 
@@ -26,6 +26,7 @@ public class DatabaseManager {
     private LobbyRepository lobbyRepository;
     private GameRepository gameRepository;
     private MetricsRepository metricsRepository;
+    private JobRepository jobRepository;
 
     public DatabaseManager(String dbPath) {
         this.dbPath = dbPath;
@@ -45,6 +46,7 @@ public class DatabaseManager {
             stmt.execute("PRAGMA temp_store = MEMORY");  // Keep temp tables in memory
         }
         executeSchema();
+        migrateSchema();
         initializeRepositories();
 
         System.out.println("Database initialized: " + dbPath);
@@ -60,6 +62,7 @@ public class DatabaseManager {
         this.lobbyRepository = new LobbyRepositoryImpl(connection);
         this.gameRepository = new GameRepositoryImpl(connection);
         this.metricsRepository = new MetricsRepositoryImpl(connection);
+        this.jobRepository = new JobRepositoryImpl(connection);
     }
 
 
@@ -110,6 +113,29 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Add columns introduced after a database was first created
+     */
+    private void migrateSchema() throws SQLException {
+        addColumnIfMissing("game_results", "latency_stats", "TEXT");
+        addColumnIfMissing("mazes", "min_steps_solved", "BOOLEAN DEFAULT 0");
+    }
+
+    private void addColumnIfMissing(String table, String column, String type) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        }
+        System.out.println("Database migrated: added " + table + "." + column);
+    }
+
     /**
      * Close database connection
      */
@@ -237,14 +263,29 @@ public class DatabaseManager {
         return mazeRepository.getUnplayedMazes(userId, difficulty);
     }
 
+    /**
+     * Get mazes whose minimum steps are still the generator's target
+     */
+    public List<Maze> getUnsolvedMazes() throws SQLException {
+        return mazeRepository.getUnsolvedMazes();
+    }
+
+    /**
+     * Store the minimum steps found by the solver and rescore the maze's game results
+     */
+    public void setMazeMinSteps(int mazeId, int minSteps) throws SQLException {
+        mazeRepository.setMinSteps(mazeId, minSteps);
+    }
+
     // ==================== GAME RESULT OPERATIONS ====================
 
     /**
      * Create a new game result
      */
     public GameResult createGameResult(int userId, int botId, int mazeId, int stepsTaken,
-            double scorePercentage, boolean completed, String gameDataPath) throws SQLException {
-        return gameRepository.createGameResult(userId, botId, mazeId, stepsTaken, scorePercentage, completed, gameDataPath);
+            double scorePercentage, boolean completed, String gameDataPath, String latencyStats) throws SQLException {
+        return gameRepository.createGameResult(userId, botId, mazeId, stepsTaken, scorePercentage, completed,
+                gameDataPath, latencyStats);
     }
 
     /**
@@ -317,6 +358,43 @@ public class DatabaseManager {
         lobbyRepository.updateLobbyLastGameId(lobbyId, gameId);
     }
 
+    // ==================== GAME JOB OPERATIONS ====================
+
+    /**
+     * Queue a new game job
+     */
+    public GameJob createJob(int userId, String jobType, Integer botId, Integer mazeId, Integer lobbyId)
+            throws SQLException {
+        return jobRepository.createJob(userId, jobType, botId, mazeId, lobbyId);
+    }
+
+    /**
+     * Get job by ID
+     */
+    public GameJob getJob(int jobId) throws SQLException {
+        return jobRepository.getJob(jobId);
+    }
+
+    public List<GameJob> getJobsByStatus(String status) throws SQLException {
+        return jobRepository.getJobsByStatus(status);
+    }
+
+    public boolean markJobRunning(int jobId) throws SQLException {
+        return jobRepository.markJobRunning(jobId);
+    }
+
+    public void completeJob(int jobId, String result) throws SQLException {
+        jobRepository.completeJob(jobId, result);
+    }
+
+    public void failJob(int jobId, String error) throws SQLException {
+        jobRepository.failJob(jobId, error);
+    }
+
+    public int requeueRunningJobs() throws SQLException {
+        return jobRepository.requeueRunningJobs();
+    }
+
     // ==================== LEADERBOARD OPERATIONS ====================
 
     public List<LeaderboardEntry> getLeaderboard(int limit) throws SQLException {
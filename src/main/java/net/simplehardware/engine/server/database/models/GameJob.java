@@ -0,0 +1,150 @@
+package net.simplehardware.engine.server.database.models;
+
+import java.sql.Timestamp;
+
+/**
+ * Model class representing a queued or finished game run
+ */
+public class GameJob {
+    public static final String TYPE_SOLO = "SOLO";
+    public static final String TYPE_LOBBY = "LOBBY";
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private int id;
+    private int userId;
+    private String jobType;
+    private Integer botId;
+    private Integer mazeId;
+    private Integer lobbyId;
+    private String status;
+    private String result;
+    private String error;
+    private Timestamp createdAt;
+    private Timestamp startedAt;
+    private Timestamp finishedAt;
+
+    public GameJob() {
+    }
+
+    public GameJob(int id, int userId, String jobType, Integer botId, Integer mazeId, Integer lobbyId,
+            String status, Timestamp createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.jobType = jobType;
+        this.botId = botId;
+        this.mazeId = mazeId;
+        this.lobbyId = lobbyId;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Whether the job has reached DONE or FAILED
+     */
+    public boolean isFinished() {
+        return DONE.equals(status) || FAILED.equals(status);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getJobType() {
+        return jobType;
+    }
+
+    public void setJobType(String jobType) {
+        this.jobType = jobType;
+    }
+
+    public Integer getBotId() {
+        return botId;
+    }
+
+    public void setBotId(Integer botId) {
+        this.botId = botId;
+    }
+
+    public Integer getMazeId() {
+        return mazeId;
+    }
+
+    public void setMazeId(Integer mazeId) {
+        this.mazeId = mazeId;
+    }
+
+    public Integer getLobbyId() {
+        return lobbyId;
+    }
+
+    public void setLobbyId(Integer lobbyId) {
+        this.lobbyId = lobbyId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * JSON response of the finished game, null until the job is DONE
+     */
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Timestamp getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Timestamp startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Timestamp getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Timestamp finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -14,6 +14,7 @@ public class GameResult {
     private double scorePercentage;
     private boolean completed;
     private String gameDataPath;
+    private String latencyStats;
     private Timestamp playedAt;
 
     public GameResult() {
@@ -96,6 +97,17 @@ public class GameResult {
         this.gameDataPath = gameDataPath;
     }
 
+    /**
+     * JSON summary of the bot's response times in this game, null for older results
+     */
+    public String getLatencyStats() {
+        return latencyStats;
+    }
+
+    public void setLatencyStats(String latencyStats) {
+        this.latencyStats = latencyStats;
+    }
+
     public Timestamp getPlayedAt() {
         return playedAt;
     }
@@ -11,9 +11,12 @@ import java.util.List;
 public interface GameRepository {
     /**
      * Create a new game result
+     *
+     * @param latencyStats JSON summary of the bot's response times, may be null
      */
     GameResult createGameResult(int userId, int botId, int mazeId, int stepsTaken,
-                                double scorePercentage, boolean completed, String gameDataPath) throws SQLException;
+                                double scorePercentage, boolean completed, String gameDataPath,
+                                String latencyStats) throws SQLException;
 
     /**
      * Get game result by ID
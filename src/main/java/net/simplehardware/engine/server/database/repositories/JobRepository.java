@@ -0,0 +1,50 @@
+package net.simplehardware.engine.server.database.repositories;
+
+import net.simplehardware.engine.server.database.models.GameJob;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Repository interface for GameJob operations
+ */
+public interface JobRepository {
+    /**
+     * Queue a new game job
+     */
+    GameJob createJob(int userId, String jobType, Integer botId, Integer mazeId, Integer lobbyId) throws SQLException;
+
+    /**
+     * Get job by ID
+     */
+    GameJob getJob(int jobId) throws SQLException;
+
+    /**
+     * Get all jobs with the given status, oldest first
+     */
+    List<GameJob> getJobsByStatus(String status) throws SQLException;
+
+    /**
+     * Move a queued job to RUNNING
+     *
+     * @return false if the job was not queued anymore
+     */
+    boolean markJobRunning(int jobId) throws SQLException;
+
+    /**
+     * Mark a job DONE with its JSON result
+     */
+    void completeJob(int jobId, String result) throws SQLException;
+
+    /**
+     * Mark a job FAILED
+     */
+    void failJob(int jobId, String error) throws SQLException;
+
+    /**
+     * Put jobs that were RUNNING when the server stopped back into the queue
+     *
+     * @return number of requeued jobs
+     */
+    int requeueRunningJobs() throws SQLException;
+}
@@ -40,6 +40,16 @@ public interface MazeRepository {
      */
     List<Maze> getUnplayedMazes(int userId, String difficulty) throws SQLException;
 
+    /**
+     * Get mazes whose minimum steps were not computed by the solver yet
+     */
+    List<Maze> getUnsolvedMazes() throws SQLException;
+
+    /**
+     * Set the solved minimum steps of a maze and rescore its game results against them
+     */
+    void setMinSteps(int mazeId, int minSteps) throws SQLException;
+
     /**
      * Get mazes by difficulty
      */
@@ -19,9 +19,10 @@ public class GameRepositoryImpl implements GameRepository {
 
     @Override
     public GameResult createGameResult(int userId, int botId, int mazeId, int stepsTaken,
-                                        double scorePercentage, boolean completed, String gameDataPath) throws SQLException {
-        String sql = "INSERT INTO game_results (user_id, bot_id, maze_id, steps_taken, score_percentage, completed, game_data_path) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+                                        double scorePercentage, boolean completed, String gameDataPath,
+                                        String latencyStats) throws SQLException {
+        String sql = "INSERT INTO game_results (user_id, bot_id, maze_id, steps_taken, score_percentage, completed, game_data_path, latency_stats) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
@@ -31,6 +32,7 @@ public class GameRepositoryImpl implements GameRepository {
             pstmt.setDouble(5, scorePercentage);
             pstmt.setBoolean(6, completed);
             pstmt.setString(7, gameDataPath);
+            pstmt.setString(8, latencyStats);
             pstmt.executeUpdate();
 
             try (Statement stmt = connection.createStatement();
@@ -147,7 +149,7 @@ public class GameRepositoryImpl implements GameRepository {
      * Helper method to map ResultSet to GameResult
      */
     private GameResult mapResultSetToGameResult(ResultSet rs) throws SQLException {
-        return new GameResult(
+        GameResult result = new GameResult(
                 rs.getInt("id"),
                 rs.getInt("user_id"),
                 rs.getInt("bot_id"),
@@ -157,5 +159,7 @@ public class GameRepositoryImpl implements GameRepository {
                 rs.getBoolean("completed"),
                 rs.getString("game_data_path"),
                 rs.getTimestamp("played_at"));
+        result.setLatencyStats(rs.getString("latency_stats"));
+        return result;
     }
 }
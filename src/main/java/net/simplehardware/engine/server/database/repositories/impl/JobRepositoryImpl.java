@@ -0,0 +1,139 @@
+package net.simplehardware.engine.server.database.repositories.impl;
+
+import net.simplehardware.engine.server.database.models.GameJob;
+import net.simplehardware.engine.server.database.repositories.JobRepository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of JobRepository for SQLite
+ */
+public class JobRepositoryImpl implements JobRepository {
+    private final Connection connection;
+
+    public JobRepositoryImpl(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public GameJob createJob(int userId, String jobType, Integer botId, Integer mazeId, Integer lobbyId)
+            throws SQLException {
+        String sql = "INSERT INTO game_jobs (user_id, job_type, bot_id, maze_id, lobby_id, status) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, jobType);
+            pstmt.setObject(3, botId);
+            pstmt.setObject(4, mazeId);
+            pstmt.setObject(5, lobbyId);
+            pstmt.setString(6, GameJob.QUEUED);
+            pstmt.executeUpdate();
+
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                if (rs.next()) {
+                    return getJob(rs.getInt(1));
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public GameJob getJob(int jobId) throws SQLException {
+        String sql = "SELECT * FROM game_jobs WHERE id = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, jobId);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return mapResultSetToGameJob(rs);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<GameJob> getJobsByStatus(String status) throws SQLException {
+        String sql = "SELECT * FROM game_jobs WHERE status = ? ORDER BY id";
+        List<GameJob> jobs = new ArrayList<>();
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, status);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                jobs.add(mapResultSetToGameJob(rs));
+            }
+        }
+        return jobs;
+    }
+
+    @Override
+    public boolean markJobRunning(int jobId) throws SQLException {
+        String sql = "UPDATE game_jobs SET status = ?, started_at = CURRENT_TIMESTAMP WHERE id = ? AND status = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, GameJob.RUNNING);
+            pstmt.setInt(2, jobId);
+            pstmt.setString(3, GameJob.QUEUED);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public void completeJob(int jobId, String result) throws SQLException {
+        finishJob(jobId, GameJob.DONE, result, null);
+    }
+
+    @Override
+    public void failJob(int jobId, String error) throws SQLException {
+        finishJob(jobId, GameJob.FAILED, null, error);
+    }
+
+    @Override
+    public int requeueRunningJobs() throws SQLException {
+        String sql = "UPDATE game_jobs SET status = ?, started_at = NULL WHERE status = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, GameJob.QUEUED);
+            pstmt.setString(2, GameJob.RUNNING);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private void finishJob(int jobId, String status, String result, String error) throws SQLException {
+        String sql = "UPDATE game_jobs SET status = ?, result = ?, error = ?, finished_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, status);
+            pstmt.setString(2, result);
+            pstmt.setString(3, error);
+            pstmt.setInt(4, jobId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Helper method to map ResultSet to GameJob
+     */
+    private GameJob mapResultSetToGameJob(ResultSet rs) throws SQLException {
+        GameJob job = new GameJob(
+                rs.getInt("id"),
+                rs.getInt("user_id"),
+                rs.getString("job_type"),
+                (Integer) rs.getObject("bot_id"),
+                (Integer) rs.getObject("maze_id"),
+                (Integer) rs.getObject("lobby_id"),
+                rs.getString("status"),
+                rs.getTimestamp("created_at"));
+        job.setResult(rs.getString("result"));
+        job.setError(rs.getString("error"));
+        job.setStartedAt(rs.getTimestamp("started_at"));
+        job.setFinishedAt(rs.getTimestamp("finished_at"));
+        return job;
+    }
+}
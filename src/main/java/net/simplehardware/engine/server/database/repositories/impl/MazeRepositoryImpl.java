@@ -125,6 +125,56 @@ public class MazeRepositoryImpl implements MazeRepository {
         return mazes;
     }
 
+    @Override
+    public List<Maze> getUnsolvedMazes() throws SQLException {
+        String sql = "SELECT * FROM mazes WHERE min_steps_solved = 0 ORDER BY active DESC, created_at DESC";
+        List<Maze> mazes = new ArrayList<>();
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                mazes.add(mapResultSetToMaze(rs));
+            }
+        }
+        return mazes;
+    }
+
+    @Override
+    public void setMinSteps(int mazeId, int minSteps) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+
+            String mazeSql = "UPDATE mazes SET min_steps = ?, min_steps_solved = 1 WHERE id = ?";
+            try (PreparedStatement pstmt = connection.prepareStatement(mazeSql)) {
+                pstmt.setInt(1, minSteps);
+                pstmt.setInt(2, mazeId);
+                pstmt.executeUpdate();
+            }
+
+            // Same formula as GameExecutionService.calculateScore
+            String scoreSql = "UPDATE game_results SET score_percentage = CASE "
+                    + "WHEN completed = 0 THEN 0.0 "
+                    + "WHEN steps_taken <= ? THEN 100.0 "
+                    + "ELSE MIN(100.0, CAST(? AS REAL) / steps_taken * 100.0) END "
+                    + "WHERE maze_id = ?";
+            try (PreparedStatement pstmt = connection.prepareStatement(scoreSql)) {
+                pstmt.setInt(1, minSteps);
+                pstmt.setInt(2, minSteps);
+                pstmt.setInt(3, mazeId);
+                pstmt.executeUpdate();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
     @Override
     public List<Maze> getMazesByDifficulty(Maze.Difficulty difficulty) throws SQLException {
         String sql = "SELECT * FROM mazes WHERE active = 1 AND difficulty = ? ORDER BY created_at DESC";
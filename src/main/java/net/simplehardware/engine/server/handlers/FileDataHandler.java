@@ -5,12 +5,17 @@ import com.sun.net.httpserver.HttpHandler;
 import net.simplehardware.engine.server.database.DatabaseManager;
 import net.simplehardware.engine.server.database.models.GameResult;
 import net.simplehardware.engine.server.database.models.Maze;
+import net.simplehardware.engine.viewer.ReplayFormat;
+import net.simplehardware.engine.viewer.ReplayReader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.sql.SQLException;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Handler for serving maze and game data files by ID
@@ -83,58 +88,157 @@ public class FileDataHandler {
                 }
 
                 try {
-                    String gameIdStr = HandlerUtils.getQueryParam(exchange, "id");
-                    if (gameIdStr == null) {
-                        HandlerUtils.sendError(exchange, 400, "Missing game ID");
+                    File file = findGameFile(exchange, db);
+                    if (file == null) {
                         return;
                     }
+                    String path = file.getPath();
 
-                    int gameId = Integer.parseInt(gameIdStr);
-                    GameResult gameResult = db.getGameResultById(gameId);
+                    exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+                    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
 
-                    if (gameResult == null) {
-                        HandlerUtils.sendError(exchange, 404, "Game not found");
+                    if (ReplayFormat.isReplay(path)) {
+                        sendReplay(exchange, file);
                         return;
                     }
 
-                    String path = gameResult.getGameDataPath();
-                    if (path == null || path.isEmpty()) {
-                        HandlerUtils.sendError(exchange, 404, "Game data not available");
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    // JSON replays are stored gzip compressed, most clients get the stored bytes as they are
+                    boolean compressed = path.endsWith(".gz");
+                    if (compressed) {
+                        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+                    }
+                    if (compressed && !HandlerUtils.acceptsGzip(exchange)) {
+                        exchange.sendResponseHeaders(200, 0);
+                        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()));
+                             OutputStream os = exchange.getResponseBody()) {
+                            in.transferTo(os);
+                        }
                         return;
                     }
+                    if (compressed) {
+                        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    }
+                    exchange.sendResponseHeaders(200, file.length());
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        Files.copy(file.toPath(), os);
+                    }
+
+                } catch (NumberFormatException e) {
+                    HandlerUtils.sendError(exchange, 400, "Invalid game ID");
+                } catch (SQLException e) {
+                    System.err.println("Database error: " + e.getMessage());
+                    HandlerUtils.sendError(exchange, 500, "Database error");
+                } catch (Exception e) {
+                    System.err.println("Error serving game file: " + e.getMessage());
+                    HandlerUtils.sendError(exchange, 500, "Error reading file");
+                }
+            }
+
+            /**
+             * Binary replays are sent whole, e.g. for download; the viewer loads them in slices
+             * through {@link GameTurnsHandler}
+             */
+            private static void sendReplay(HttpExchange exchange, File file) throws IOException {
+                exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                exchange.sendResponseHeaders(200, file.length());
+                try (OutputStream os = exchange.getResponseBody()) {
+                    Files.copy(file.toPath(), os);
+                }
+            }
+        }
+
+    /**
+         * Serve part of a binary replay by game result ID - GET /api/game/turns?id={gameId}&from={frame}&to={frame}.
+         * The slice starts with the full state at from, without to it ends at the next keyframe,
+         * see {@link ReplayReader#writeSlice}. Only the chunks holding the slice are read.
+         */
+        public record GameTurnsHandler(DatabaseManager db) implements HttpHandler {
+        private static final int MAX_SLICE_FRAMES = 1000;
+
+        @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    HandlerUtils.sendError(exchange, 405, "Method not allowed");
+                    return;
+                }
 
-                    // Security: verify path is in allowed directory
-                    if (!path.startsWith("data/games/") || path.contains("..")) {
-                        HandlerUtils.sendError(exchange, 403, "Forbidden");
+                try {
+                    File file = findGameFile(exchange, db);
+                    if (file == null) {
                         return;
                     }
-
-                    File file = new File(path);
-                    if (!file.exists() || !file.isFile()) {
-                        HandlerUtils.sendError(exchange, 404, "Game file not found");
+                    if (!ReplayFormat.isReplay(file.getPath())) {
+                        HandlerUtils.sendError(exchange, 409, "Replay has no turn index");
                         return;
                     }
 
-                    byte[] fileBytes = Files.readAllBytes(file.toPath());
+                    String fromStr = HandlerUtils.getQueryParam(exchange, "from");
+                    String toStr = HandlerUtils.getQueryParam(exchange, "to");
+                    int from = fromStr != null ? Integer.parseInt(fromStr) : 0;
 
-                    exchange.getResponseHeaders().set("Content-Type", "application/json");
-                    exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
-                    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
-                    exchange.sendResponseHeaders(200, fileBytes.length);
+                    ByteArrayOutputStream slice = new ByteArrayOutputStream();
+                    try (ReplayReader reader = new ReplayReader(file.toPath())) {
+                        int keyframeInterval = reader.getKeyframeInterval();
+                        int to = toStr != null ? Integer.parseInt(toStr) : (from / keyframeInterval + 1) * keyframeInterval;
+                        reader.writeSlice(from, Math.min(to, from + MAX_SLICE_FRAMES), slice);
+                    }
 
+                    exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                    exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+                    exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+                    exchange.sendResponseHeaders(200, slice.size());
                     try (OutputStream os = exchange.getResponseBody()) {
-                        os.write(fileBytes);
+                        slice.writeTo(os);
                     }
 
                 } catch (NumberFormatException e) {
-                    HandlerUtils.sendError(exchange, 400, "Invalid game ID");
+                    HandlerUtils.sendError(exchange, 400, "Invalid game ID or frame");
                 } catch (SQLException e) {
                     System.err.println("Database error: " + e.getMessage());
                     HandlerUtils.sendError(exchange, 500, "Database error");
-                } catch (Exception e) {
-                    System.err.println("Error serving game file: " + e.getMessage());
-                    HandlerUtils.sendError(exchange, 500, "Error reading file");
+                } catch (IOException e) {
+                    System.err.println("Error reading replay: " + e.getMessage());
+                    HandlerUtils.sendError(exchange, 500, "Error reading replay");
                 }
             }
         }
+
+    /**
+     * Replay file of the game in the id query parameter, sends the error response and returns null if there is none
+     */
+    private static File findGameFile(HttpExchange exchange, DatabaseManager db) throws IOException, SQLException {
+        String gameIdStr = HandlerUtils.getQueryParam(exchange, "id");
+        if (gameIdStr == null) {
+            HandlerUtils.sendError(exchange, 400, "Missing game ID");
+            return null;
+        }
+
+        int gameId = Integer.parseInt(gameIdStr);
+        GameResult gameResult = db.getGameResultById(gameId);
+
+        if (gameResult == null) {
+            HandlerUtils.sendError(exchange, 404, "Game not found");
+            return null;
+        }
+
+        String path = gameResult.getGameDataPath();
+        if (path == null || path.isEmpty()) {
+            HandlerUtils.sendError(exchange, 404, "Game data not available");
+            return null;
+        }
+
+        // Security: verify path is in allowed directory
+        if (!path.startsWith("data/games/") || path.contains("..")) {
+            HandlerUtils.sendError(exchange, 403, "Forbidden");
+            return null;
+        }
+
+        File file = new File(path);
+        if (!file.exists() || !file.isFile()) {
+            HandlerUtils.sendError(exchange, 404, "Game file not found");
+            return null;
+        }
+        return file;
+    }
 }
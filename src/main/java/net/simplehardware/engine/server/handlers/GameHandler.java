@@ -1,13 +1,16 @@
 package net.simplehardware.engine.server.handlers;
 
+import com.google.gson.JsonParser;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import net.simplehardware.engine.server.database.DatabaseManager;
+import net.simplehardware.engine.server.database.models.GameJob;
 import net.simplehardware.engine.server.database.models.GameResult;
 import net.simplehardware.engine.server.database.models.Maze;
 import net.simplehardware.engine.server.database.models.PlayerBot;
 import net.simplehardware.engine.server.security.SessionManager;
-import net.simplehardware.engine.server.services.GameExecutionService;
+import net.simplehardware.engine.server.services.GameJobService;
+import net.simplehardware.engine.server.services.QueueFullException;
 
 import java.io.IOException;
 import java.util.*;
@@ -18,18 +21,18 @@ import java.util.*;
 public class GameHandler {
 
     /**
-     * Play game handler - executes a game with a random maze
+     * Play game handler - queues a game with a random maze, the result is fetched from /api/jobs/{id}
      */
     public static class PlayGameHandler implements HttpHandler {
         private final DatabaseManager db;
         private final SessionManager sessionManager;
-        private final GameExecutionService gameService;
+        private final GameJobService jobService;
 
         public PlayGameHandler(DatabaseManager db, SessionManager sessionManager,
-                               GameExecutionService gameService) {
+                               GameJobService jobService) {
             this.db = db;
             this.sessionManager = sessionManager;
-            this.gameService = gameService;
+            this.jobService = jobService;
         }
 
         @Override
@@ -87,32 +90,27 @@ public class GameHandler {
                 Random random = new Random();
                 Maze maze = activeMazes.get(random.nextInt(activeMazes.size()));
 
-                // Execute game
-                GameResult result = gameService.executeGame(session.userId(), bot.getId(), maze.getId());
+                // Queue game
+                GameJob job = jobService.submitSoloGame(session.userId(), bot.getId(), maze.getId());
 
-                // Send response
-                Map<String, Object> response = makeResponse(result, maze);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("jobId", job.getId());
+                response.put("status", job.getStatus());
+                response.put("mazeName", maze.getName());
+                response.put("difficulty", maze.getDifficulty().name());
 
-                HandlerUtils.sendResponse(exchange, 200, response);
+                HandlerUtils.sendResponse(exchange, 202, response);
 
+            } catch (QueueFullException e) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+                HandlerUtils.sendResponse(exchange, 429,
+                        Map.of("error", e.getMessage(), "retryAfter", e.getRetryAfterSeconds()));
             } catch (Exception e) {
                 e.printStackTrace();
                 HandlerUtils.sendResponse(exchange, 500, Map.of("error", "Game execution failed: " + e.getMessage()));
             }
         }
-
-        private static Map<String, Object> makeResponse(GameResult result, Maze maze) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("gameId", result.getId());
-            response.put("mazeName", maze.getName());
-            response.put("difficulty", maze.getDifficulty().name());
-            response.put("stepsTaken", result.getStepsTaken());
-            response.put("minSteps", maze.getMinSteps());
-            response.put("score", result.getScorePercentage());
-            response.put("completed", result.isCompleted());
-            return response;
-        }
     }
 
     /**
@@ -148,6 +146,9 @@ public class GameHandler {
                     response.put("gameId", result.getId());
                     response.put("score", result.getScorePercentage());
                     response.put("completed", result.isCompleted());
+                    if (result.getLatencyStats() != null) {
+                        response.put("latency", JsonParser.parseString(result.getLatencyStats()));
+                    }
 
                     HandlerUtils.sendResponse(exchange, 200, response);
 
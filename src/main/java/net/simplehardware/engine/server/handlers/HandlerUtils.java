@@ -83,6 +83,38 @@ public class HandlerUtils {
         return null;
     }
 
+    /**
+     * Whether the client accepts gzip encoded responses, i.e. lists gzip with a q-value above 0
+     */
+    public static boolean acceptsGzip(HttpExchange exchange) {
+        for (String value : exchange.getRequestHeaders().getOrDefault("Accept-Encoding", java.util.List.of())) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return qValue(parts) > 0;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Weight of an Accept-Encoding entry split at ';', 1 without a q parameter and 0 if it is malformed
+     */
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
     public static java.util.Map<String, String> parseQueryParams(String query) {
         java.util.Map<String, String> params = new java.util.HashMap<>();
         if (query == null || query.isEmpty()) {
@@ -0,0 +1,113 @@
+package net.simplehardware.engine.server.handlers;
+
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import net.simplehardware.engine.server.database.DatabaseManager;
+import net.simplehardware.engine.server.database.models.GameJob;
+import net.simplehardware.engine.server.database.models.LobbyPlayer;
+import net.simplehardware.engine.server.security.SessionManager;
+import net.simplehardware.engine.server.services.GameJobService;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Game job handlers
+ */
+public class JobHandler {
+    private static final int MAX_WAIT_SECONDS = 30;
+
+    /**
+     * Job status handler - GET /api/jobs/{id}?wait=seconds.
+     * With a wait time the response is held back until the job finishes or the time is up,
+     * without keeping an HTTP worker thread busy.
+     */
+    public record JobStatusHandler(DatabaseManager db, SessionManager sessionManager,
+                                   GameJobService jobService) implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                HandlerUtils.sendResponse(exchange, 405, Map.of("error", "Method not allowed"));
+                return;
+            }
+
+            try {
+                SessionManager.SessionData session = HandlerUtils.validateSession(exchange, sessionManager);
+                if (session == null) {
+                    HandlerUtils.sendResponse(exchange, 401, Map.of("error", "Unauthorized"));
+                    return;
+                }
+
+                String path = exchange.getRequestURI().getPath();
+                String[] parts = path.split("/");
+                int jobId = Integer.parseInt(parts[parts.length - 1]);
+
+                GameJob job = db.getJob(jobId);
+                if (job == null || !canView(job, session.userId())) {
+                    HandlerUtils.sendResponse(exchange, 404, Map.of("error", "Job not found"));
+                    return;
+                }
+
+                String wait = HandlerUtils.getQueryParam(exchange, "wait");
+                int waitSeconds;
+                try {
+                    waitSeconds = wait != null ? Math.clamp(Integer.parseInt(wait), 0, MAX_WAIT_SECONDS) : 0;
+                } catch (NumberFormatException e) {
+                    HandlerUtils.sendResponse(exchange, 400, Map.of("error", "Invalid wait, expected whole seconds"));
+                    return;
+                }
+
+                jobService.awaitJob(jobId, waitSeconds * 1000L).whenComplete((current, error) -> {
+                    try {
+                        if (error != null || current == null) {
+                            HandlerUtils.sendResponse(exchange, 500, Map.of("error", "Job lookup failed"));
+                        } else {
+                            HandlerUtils.sendResponse(exchange, 200, makeResponse(current));
+                        }
+                    } catch (IOException e) {
+                        System.err.println("Failed to send job status: " + e.getMessage());
+                    }
+                });
+
+            } catch (NumberFormatException e) {
+                HandlerUtils.sendResponse(exchange, 400, Map.of("error", "Invalid job ID"));
+            } catch (SQLException e) {
+                e.printStackTrace();
+                HandlerUtils.sendResponse(exchange, 500, Map.of("error", "Database error: " + e.getMessage()));
+            }
+        }
+
+        private boolean canView(GameJob job, int userId) throws SQLException {
+            if (job.getUserId() == userId) {
+                return true;
+            }
+            if (job.getLobbyId() != null) {
+                for (LobbyPlayer player : db.getLobbyPlayers(job.getLobbyId())) {
+                    if (player.getUserId() == userId) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static Map<String, Object> makeResponse(GameJob job) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("jobId", job.getId());
+            response.put("type", job.getJobType());
+            response.put("status", job.getStatus());
+            if (job.getResult() != null) {
+                response.put("result", JsonParser.parseString(job.getResult()));
+            }
+            if (job.getError() != null) {
+                response.put("error", job.getError());
+            }
+            return response;
+        }
+    }
+}
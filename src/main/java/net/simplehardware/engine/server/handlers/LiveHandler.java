@@ -0,0 +1,60 @@
+package net.simplehardware.engine.server.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import net.simplehardware.engine.server.services.LiveGameHub;
+import net.simplehardware.engine.viewer.LiveGameFeed;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Live game handler - GET /api/live/{jobId} or /api/live/lobby/{lobbyId}.
+ * Streams the turns of a queued or running game as Server-Sent Events, see {@link LiveGameFeed}.
+ * Like finished replays, running games can be watched without login.
+ * Each spectator is served on its own virtual thread, so open streams do not hold HTTP worker threads.
+ */
+public record LiveHandler(LiveGameHub liveGames) implements HttpHandler {
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            HandlerUtils.sendResponse(exchange, 405, Map.of("error", "Method not allowed"));
+            return;
+        }
+
+        LiveGameFeed feed;
+        try {
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            int id = Integer.parseInt(parts[parts.length - 1]);
+            boolean lobby = parts.length >= 2 && "lobby".equals(parts[parts.length - 2]);
+            feed = lobby ? liveGames.getByLobby(id) : liveGames.get(id);
+        } catch (NumberFormatException e) {
+            HandlerUtils.sendResponse(exchange, 400, Map.of("error", "Invalid game ID"));
+            return;
+        }
+
+        if (feed == null) {
+            HandlerUtils.sendResponse(exchange, 404, Map.of("error", "Game is not running"));
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(200, 0);
+
+        Thread.ofVirtual().name("live-spectator").start(() -> {
+            try (OutputStream out = exchange.getResponseBody()) {
+                feed.stream(out);
+            } catch (IOException e) {
+                // Spectator went away
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+}
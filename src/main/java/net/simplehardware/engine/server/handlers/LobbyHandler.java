@@ -4,15 +4,18 @@ import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import net.simplehardware.engine.server.database.DatabaseManager;
+import net.simplehardware.engine.server.database.models.GameJob;
 import net.simplehardware.engine.server.database.models.Lobby;
 import net.simplehardware.engine.server.database.models.LobbyPlayer;
 import net.simplehardware.engine.server.database.models.PlayerBot;
 import net.simplehardware.engine.server.security.SessionManager;
-import net.simplehardware.engine.server.services.GameExecutionService;
+import net.simplehardware.engine.server.services.GameJobService;
+import net.simplehardware.engine.server.services.QueueFullException;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -270,7 +273,7 @@ public class LobbyHandler {
         }
 
     public record StartLobbyHandler(DatabaseManager db, SessionManager sessionManager,
-                                    GameExecutionService gameService) implements HttpHandler {
+                                    GameJobService jobService) implements HttpHandler {
 
         @Override
             @SuppressWarnings("unchecked")
@@ -311,12 +314,24 @@ public class LobbyHandler {
                         return;
                     }
 
+                    // Set before submitting so a quickly finished game cannot be overwritten, undone if submitting fails
                     db.updateLobbyStatus(lobbyId, "IN_PROGRESS");
 
-                    // Execute game (this might take a while)
-                    Map<String, Object> result = gameService.executeMultiplayerGame(lobbyId);
+                    // Players follow the lobby status, the host can also poll the job
+                    GameJob job;
+                    try {
+                        job = jobService.submitLobbyGame(session.userId(), lobbyId, players.size());
+                    } catch (QueueFullException e) {
+                        db.updateLobbyStatus(lobbyId, "WAITING");
+                        exchange.getResponseHeaders().set("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+                        sendResponse(exchange, 429, Map.of("error", e.getMessage(), "retryAfter", e.getRetryAfterSeconds()));
+                        return;
+                    } catch (SQLException | RuntimeException e) {
+                        db.updateLobbyStatus(lobbyId, "WAITING");
+                        throw e;
+                    }
 
-                    sendResponse(exchange, 200, Map.of("success", true, "lobbyId", lobbyId, "result", result));
+                    sendResponse(exchange, 202, Map.of("success", true, "lobbyId", lobbyId, "jobId", job.getId()));
 
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -0,0 +1,202 @@
+package net.simplehardware.engine.server.handlers;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import net.simplehardware.engine.server.services.WorkerDispatcher;
+import net.simplehardware.engine.worker.GameRunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints used by remote game workers, authenticated with the shared worker.token
+ */
+public class WorkerHandler {
+    private static final String TOKEN_HEADER = "X-Worker-Token";
+    private static final int MAX_WAIT_SECONDS = 30;
+    private static final Gson gson = new Gson();
+
+    /**
+     * Body a worker posts when it has finished a game, either outcome or error is set
+     */
+    public static class Completion {
+        public GameRunner.Outcome outcome;
+        public String error;
+    }
+
+    /**
+     * Check the worker token and that remote workers are enabled, sends the error response otherwise
+     */
+    private static boolean authorize(HttpExchange exchange, String token, WorkerDispatcher dispatcher)
+            throws IOException {
+        String given = exchange.getRequestHeaders().getFirst(TOKEN_HEADER);
+        if (token == null || token.isEmpty() || given == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), given.getBytes(StandardCharsets.UTF_8))) {
+            HandlerUtils.sendResponse(exchange, 403, Map.of("error", "Invalid worker token"));
+            return false;
+        }
+        if (dispatcher == null) {
+            HandlerUtils.sendResponse(exchange, 404, Map.of("error", "Remote workers are not enabled"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Claim handler - POST /api/worker/claim?worker=name&wait=seconds.
+     * Answers with the next game and its lease, or 204 if none came up within the wait time.
+     * Like job status requests, the response is sent without blocking an HTTP worker thread.
+     */
+    public record ClaimHandler(String token, WorkerDispatcher dispatcher) implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                HandlerUtils.sendResponse(exchange, 405, Map.of("error", "Method not allowed"));
+                return;
+            }
+            if (!authorize(exchange, token, dispatcher)) {
+                return;
+            }
+
+            String worker = HandlerUtils.getQueryParam(exchange, "worker");
+            String wait = HandlerUtils.getQueryParam(exchange, "wait");
+            int waitSeconds;
+            try {
+                waitSeconds = wait != null ? Math.clamp(Integer.parseInt(wait), 0, MAX_WAIT_SECONDS) : 0;
+            } catch (NumberFormatException e) {
+                HandlerUtils.sendResponse(exchange, 400, Map.of("error", "Invalid wait time"));
+                return;
+            }
+            String workerName = worker != null ? worker : exchange.getRemoteAddress().getHostString();
+
+            dispatcher.claim(workerName, waitSeconds * 1000L).whenComplete((assignment, error) -> {
+                try {
+                    if (assignment == null) {
+                        exchange.sendResponseHeaders(204, -1);
+                        exchange.close();
+                        return;
+                    }
+                    System.out.println("Game " + assignment.getSpec().logName + " leased to worker " + workerName);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("lease", assignment.getLeaseId());
+                    response.put("spec", assignment.getSpec());
+                    HandlerUtils.sendResponse(exchange, 200, response);
+                } catch (IOException e) {
+                    System.err.println("Failed to send game to worker " + workerName + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Lease handler - /api/worker/leases/{lease}/...
+     * POST confirm accepts the lease, GET bots/{index} sends a player's jar,
+     * PUT live streams the running game to spectators, PUT replay stores the replay,
+     * POST complete finishes the lease with a {@link Completion}.
+     */
+    public record LeaseHandler(String token, WorkerDispatcher dispatcher) implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!authorize(exchange, token, dispatcher)) {
+                return;
+            }
+
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            // "", api, worker, leases, {lease}, action, ...
+            if (parts.length < 6) {
+                HandlerUtils.sendResponse(exchange, 404, Map.of("error", "Not found"));
+                return;
+            }
+            String leaseId = parts[4];
+            String action = parts[5];
+            String method = exchange.getRequestMethod();
+
+            try {
+                if ("POST".equals(method) && "confirm".equals(action)) {
+                    if (dispatcher.confirm(leaseId)) {
+                        HandlerUtils.sendResponse(exchange, 200, Map.of("success", true));
+                    } else {
+                        HandlerUtils.sendResponse(exchange, 409, Map.of("error", "Lease expired"));
+                    }
+                } else if ("GET".equals(method) && "bots".equals(action) && parts.length == 7) {
+                    sendBot(exchange, leaseId, Integer.parseInt(parts[6]));
+                } else if ("PUT".equals(method) && "live".equals(action)) {
+                    // Lasts as long as the game, keep it off the HTTP worker threads
+                    Thread.ofVirtual().name("live-relay").start(() -> relay(exchange, leaseId));
+                } else if ("PUT".equals(method) && "replay".equals(action)) {
+                    try (InputStream body = exchange.getRequestBody()) {
+                        if (dispatcher.receiveReplay(leaseId, body)) {
+                            HandlerUtils.sendResponse(exchange, 200, Map.of("success", true));
+                        } else {
+                            HandlerUtils.sendResponse(exchange, 409, Map.of("error", "Lease expired"));
+                        }
+                    }
+                } else if ("POST".equals(method) && "complete".equals(action)) {
+                    Completion completion;
+                    try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                        completion = gson.fromJson(reader, Completion.class);
+                    }
+                    if (completion == null) {
+                        HandlerUtils.sendResponse(exchange, 400, Map.of("error", "Missing result"));
+                    } else if (dispatcher.complete(leaseId, completion.outcome, completion.error)) {
+                        HandlerUtils.sendResponse(exchange, 200, Map.of("success", true));
+                    } else {
+                        HandlerUtils.sendResponse(exchange, 409, Map.of("error", "Lease expired"));
+                    }
+                } else {
+                    HandlerUtils.sendResponse(exchange, 404, Map.of("error", "Not found"));
+                }
+            } catch (NumberFormatException e) {
+                HandlerUtils.sendResponse(exchange, 400, Map.of("error", "Invalid player index"));
+            } catch (Exception e) {
+                e.printStackTrace();
+                HandlerUtils.sendResponse(exchange, 500, Map.of("error", "Worker request failed: " + e.getMessage()));
+            }
+        }
+
+        private void relay(HttpExchange exchange, String leaseId) {
+            try (InputStream body = exchange.getRequestBody()) {
+                if (dispatcher.relayLive(leaseId, body)) {
+                    HandlerUtils.sendResponse(exchange, 200, Map.of("success", true));
+                } else {
+                    HandlerUtils.sendResponse(exchange, 409, Map.of("error", "Lease expired"));
+                }
+            } catch (IOException e) {
+                System.err.println("Live relay of lease " + leaseId + " ended: " + e.getMessage());
+                exchange.close();
+            }
+        }
+
+        private void sendBot(HttpExchange exchange, String leaseId, int index) throws IOException {
+            WorkerDispatcher.Assignment assignment = dispatcher.getLease(leaseId);
+            if (assignment == null) {
+                HandlerUtils.sendResponse(exchange, 409, Map.of("error", "Lease expired"));
+                return;
+            }
+            List<String> jars = assignment.getSpec().playerJars;
+            if (index < 0 || index >= jars.size() || !Files.isRegularFile(Path.of(jars.get(index)))) {
+                HandlerUtils.sendResponse(exchange, 404, Map.of("error", "Bot not found"));
+                return;
+            }
+
+            Path jar = Path.of(jars.get(index));
+            exchange.getResponseHeaders().set("Content-Type", "application/java-archive");
+            exchange.sendResponseHeaders(200, Files.size(jar));
+            try (OutputStream os = exchange.getResponseBody()) {
+                Files.copy(jar, os);
+            }
+        }
+    }
+}
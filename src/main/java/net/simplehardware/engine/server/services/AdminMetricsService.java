@@ -1,5 +1,6 @@
 package net.simplehardware.engine.server.services;
 
+import net.simplehardware.engine.core.ProcessSupervisor;
 import net.simplehardware.engine.server.database.DatabaseManager;
 
 import java.sql.SQLException;
@@ -8,9 +9,13 @@ import java.util.concurrent.*;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
 
 public class AdminMetricsService {
     private final DatabaseManager db;
+    private final ProcessSupervisor processSupervisor;
+    private final GameJobService jobService;
+    private final WorkerDispatcher workerDispatcher;
     private final ScheduledExecutorService scheduler;
     private final Map<String, Long> requestCounts;
     private final Map<String, Long> cacheHits;
@@ -19,8 +24,12 @@ public class AdminMetricsService {
     private final Object metricsLock = new Object();
     private volatile long lastRecordTime = System.currentTimeMillis();
 
-    public AdminMetricsService(DatabaseManager db) {
+    public AdminMetricsService(DatabaseManager db, ProcessSupervisor processSupervisor, GameJobService jobService,
+                               WorkerDispatcher workerDispatcher) {
         this.db = db;
+        this.processSupervisor = processSupervisor;
+        this.jobService = jobService;
+        this.workerDispatcher = workerDispatcher;
         this.scheduler = Executors.newScheduledThreadPool(1);
         this.requestCounts = new ConcurrentHashMap<>();
         this.cacheHits = new ConcurrentHashMap<>();
@@ -137,6 +146,21 @@ public class AdminMetricsService {
             metrics.put("memory_max", maxMemory);
             metrics.put("memory_percent", maxMemory > 0 ? (double) usedMemory / maxMemory * 100 : 0);
 
+            // Platform threads only, including the stdout and stderr pump of every local bot process
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            metrics.put("thread_count", threadBean.getThreadCount());
+            metrics.put("peak_thread_count", threadBean.getPeakThreadCount());
+            metrics.put("daemon_thread_count", threadBean.getDaemonThreadCount());
+
+            metrics.put("running_games", processSupervisor.getGroupCount());
+            metrics.put("bot_processes_live", processSupervisor.getLiveCount());
+            metrics.put("bot_processes_leaked", processSupervisor.getLeakedCount());
+            metrics.put("game_queue", jobService.getSchedulerStatus());
+            metrics.put("live_games", jobService.getLiveGames().getStatus());
+            if (workerDispatcher != null) {
+                metrics.put("remote_workers", workerDispatcher.getStatus());
+            }
+
             synchronized (metricsLock) {
                 long totalRequests = requestCounts.values().stream().mapToLong(Long::longValue).sum();
                 metrics.put("active_requests", totalRequests);
@@ -1,37 +1,69 @@
 package net.simplehardware.engine.server.services;
 
-import net.simplehardware.engine.core.GameEngine;
-import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.core.BotProcessPool;
+import net.simplehardware.engine.core.ProcessSupervisor;
 import net.simplehardware.engine.server.database.DatabaseManager;
 import net.simplehardware.engine.server.database.models.GameResult;
 import net.simplehardware.engine.server.database.models.Lobby;
 import net.simplehardware.engine.server.database.models.LobbyPlayer;
 import net.simplehardware.engine.server.database.models.PlayerBot;
-import net.simplehardware.engine.viewer.WebViewerExporter;
-import net.simplehardware.engine.viewer.elements.GameState;
-import net.simplehardware.models.MazeInfoData;
-import com.google.gson.Gson;
+import net.simplehardware.engine.viewer.LiveGameFeed;
+import net.simplehardware.engine.viewer.ReplayFormat;
+import net.simplehardware.engine.worker.GameRunner;
+import net.simplehardware.engine.worker.GameSpec;
 
-import java.io.FileReader;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.Properties;
 
+/**
+ * Runs server games and records their results.
+ * Games run in this JVM, or on remote workers when game.workers.remote is set.
+ */
 public class GameExecutionService {
     private final DatabaseManager db;
-    private final ExecutorService executor;
     private final String gameDataDirectory;
-
-    private static final int MAX_CONCURRENT_GAMES = 5;
-    private static final int GAME_TIMEOUT_SECONDS = 60;
-
-    public GameExecutionService(DatabaseManager db, String gameDataDirectory) {
+    private final BotProcessPool botPool;
+    private final ProcessSupervisor processSupervisor = new ProcessSupervisor();
+    private final GameRunner runner;
+    private final WorkerDispatcher workerDispatcher;
+    private final boolean simultaneousTurns;
+    private final long timeBankMs;
+    private final long startupTimeoutMs;
+    private final int gameTimeoutSeconds;
+    private final int botOutputLimit;
+    private final boolean spillBotOutput;
+    private final long botOutputSpillLimit;
+    private final MazeCache mazeCache;
+
+    public GameExecutionService(DatabaseManager db, String gameDataDirectory, Properties config) {
         this.db = db;
         this.gameDataDirectory = gameDataDirectory;
-        this.executor = Executors.newFixedThreadPool(MAX_CONCURRENT_GAMES);
+        this.gameTimeoutSeconds = Integer.parseInt(config.getProperty("game.timeout.seconds", "60"));
         new java.io.File(gameDataDirectory).mkdirs();
+
+        if (Boolean.parseBoolean(config.getProperty("game.workers.remote", "false"))) {
+            this.workerDispatcher = new WorkerDispatcher();
+            this.botPool = null;
+            this.runner = null;
+        } else {
+            int poolSize = Integer.parseInt(config.getProperty("bot.pool.size", "4"));
+            this.workerDispatcher = null;
+            this.botPool = new BotProcessPool(poolSize);
+            this.botPool.start();
+            // Concurrency is limited by the GameScheduler that calls into this service
+            this.runner = new GameRunner(botPool, processSupervisor);
+        }
+
+        this.simultaneousTurns = Boolean.parseBoolean(config.getProperty("game.simultaneous.turns", "false"));
+        this.timeBankMs = Long.parseLong(config.getProperty("game.timebank.ms", "0"));
+        this.startupTimeoutMs = Long.parseLong(config.getProperty("bot.startup.timeout.ms", "5000"));
+        this.botOutputLimit = Integer.parseInt(config.getProperty("game.bot.output.limit.kb", "16")) * 1024;
+        this.spillBotOutput = Boolean.parseBoolean(config.getProperty("game.bot.output.spill", "false"));
+        this.botOutputSpillLimit = Long.parseLong(config.getProperty("game.bot.output.spill.max.mb", "64")) * 1024 * 1024;
+        this.mazeCache = new MazeCache(Integer.parseInt(config.getProperty("maze.cache.size", "64")));
     }
 
     /**
@@ -40,9 +72,10 @@ public class GameExecutionService {
      * @param userId User ID
      * @param botId  Bot ID
      * @param mazeId Maze ID
+     * @param live   Feed the turns are published to while the game runs
      * @return GameResult
      */
-    public GameResult executeGame(int userId, int botId, int mazeId) throws Exception {
+    public GameResult executeGame(int userId, int botId, int mazeId, LiveGameFeed live) throws Exception {
         PlayerBot bot = db.getPlayerBotById(botId);
         net.simplehardware.engine.server.database.models.Maze mazeModel = db.getMazeById(mazeId);
 
@@ -59,55 +92,17 @@ public class GameExecutionService {
         System.out.println("Executing game for user " + userId + " with bot " + bot.getBotName() + " on maze "
                 + mazeModel.getName());
 
-        MazeInfoData mazeData;
-        try (FileReader reader = new FileReader(mazeModel.getFilePath())) {
-            mazeData = new Gson().fromJson(reader, MazeInfoData.class);
-        }
+        GameSpec spec = createSpec("u" + userId, mazeModel, live);
+        spec.turnTimeoutMs = 500;
+        spec.botIds.add(bot.getId());
+        spec.playerJars.add(bot.getJarPath());
 
-        Maze maze = new Maze(mazeData);
-
-        GameEngine.GameConfig config = new GameEngine.GameConfig();
-        config.debug = 0;
-        config.turnInfo = 0;
-        config.leagueLevel = 5;
-        config.logging = 0;
-        config.maxTurns = 5000;
-        config.turnTimeoutMs = 500;
-        config.firstTurnTimeoutMs = 1000;
-        config.sheetsPerPlayer = 2;
-
-        List<String> playerJars = new ArrayList<>();
-        playerJars.add(bot.getJarPath());
-
-        GameEngine engine = new GameEngine(maze, playerJars, config);
-        engine.setRandomSpawn(false);
-        engine.initialize();
-
-        Future<?> gameFuture = executor.submit(engine::runGame);
-
-        boolean timedOut = false;
-        try {
-            gameFuture.get(GAME_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-        } catch (TimeoutException e) {
-            gameFuture.cancel(true);
-            timedOut = true;
-            System.out.println("Game timed out after " + GAME_TIMEOUT_SECONDS + " seconds");
-        }
-
-        List<GameState> history = engine.getGameHistory();
-        if (history.isEmpty()) {
-            throw new IllegalStateException("No game history available");
-        }
-
-        GameState finalState = history.getLast();
-        int stepsTaken = finalState.getTurnNumber();
-
-        GameState.PlayerSnapshot playerSnapshot = finalState.getPlayers().get(1);
-        boolean completed = playerSnapshot != null && playerSnapshot.finished() && !timedOut;
+        String gameDataPath = replayPath(spec);
+        GameRunner.Outcome outcome = run(spec, gameDataPath);
 
+        int stepsTaken = outcome.stepsTaken;
+        boolean completed = outcome.finished.getFirst();
         double scorePercentage = calculateScore(stepsTaken, mazeModel.getMinSteps(), completed);
-        String gameDataPath = gameDataDirectory + "/game_" + System.currentTimeMillis() + "_u" + userId + ".json";
-        WebViewerExporter.exportToJSON(engine.getGameHistory(), mazeModel.getName(), gameDataPath);
 
         GameResult result = db.createGameResult(
                 userId,
@@ -116,7 +111,8 @@ public class GameExecutionService {
                 stepsTaken,
                 scorePercentage,
                 completed,
-                gameDataPath);
+                gameDataPath,
+                outcome.latencyStats.getFirst());
 
         GameResult previousBest = db.getBestScoreForMaze(userId, mazeId);
 
@@ -127,32 +123,92 @@ public class GameExecutionService {
 
             if (newIsBetter) {
                 // Delete the old result
-                String oldFilePath = db.deleteGameResult(previousBest.getId());
-                if (oldFilePath != null) {
-                    java.io.File oldFile = new java.io.File(oldFilePath);
-                    if (oldFile.exists()) {
-                        oldFile.delete();
-                    }
-                }
+                deleteGameFiles(db.deleteGameResult(previousBest.getId()));
             } else {
-                String newFilePath = db.deleteGameResult(result.getId());
-                if (newFilePath != null) {
-                    java.io.File newFile = new java.io.File(newFilePath);
-                    if (newFile.exists()) {
-                        newFile.delete();
-                    }
-                }
+                deleteGameFiles(db.deleteGameResult(result.getId()));
                 result = previousBest;
             }
         }
 
-        System.out.println("Game complete: " + (completed ? "FINISHED" : timedOut ? "TIMED OUT" : "INCOMPLETE") +
+        System.out.println("Game complete: " + (completed ? "FINISHED" : outcome.timedOut ? "TIMED OUT" : "INCOMPLETE") +
                 ", Steps: " + stepsTaken + "/" + mazeModel.getMinSteps() +
                 ", Score: " + String.format("%.2f%%", scorePercentage));
 
         return result;
     }
 
+    /**
+     * Settings shared by solo and lobby games
+     */
+    private GameSpec createSpec(String logName, net.simplehardware.engine.server.database.models.Maze mazeModel,
+                                LiveGameFeed live) throws IOException {
+        GameSpec spec = new GameSpec();
+        spec.logName = logName;
+        spec.mazeName = mazeModel.getName();
+        spec.liveFeed = live;
+        if (live != null) {
+            live.setMazeName(mazeModel.getName());
+        }
+        spec.compiledMaze = mazeCache.get(mazeModel);
+        spec.maze = spec.compiledMaze.getData();
+        spec.maxTurns = 5000;
+        spec.firstTurnTimeoutMs = 1000;
+        spec.timeBankMs = timeBankMs;
+        spec.startupTimeoutMs = startupTimeoutMs;
+        spec.timeoutSeconds = gameTimeoutSeconds;
+        spec.botOutputLimit = botOutputLimit;
+        return spec;
+    }
+
+    private String replayPath(GameSpec spec) {
+        return gameDataDirectory + "/game_" + System.currentTimeMillis() + "_" + spec.logName + ReplayFormat.EXTENSION;
+    }
+
+    /**
+     * Run a game here or on a remote worker, the replay ends up at replayPath either way
+     */
+    private GameRunner.Outcome run(GameSpec spec, String replayPath) throws Exception {
+        if (workerDispatcher != null) {
+            return workerDispatcher.execute(spec, replayPath);
+        }
+        if (spillBotOutput) {
+            spec.botOutputSpillPath = spillPath(replayPath);
+            spec.botOutputSpillLimit = botOutputSpillLimit;
+        }
+        return runner.run(spec, spec.playerJars, replayPath);
+    }
+
+    private static String spillPath(String replayPath) {
+        return replayPath.substring(0, replayPath.length() - ReplayFormat.EXTENSION.length()) + ".log.gz";
+    }
+
+    /**
+     * Delete a replay and the bot output spilled next to it
+     */
+    private static void deleteGameFiles(String replayPath) {
+        if (replayPath == null) {
+            return;
+        }
+        new java.io.File(replayPath).delete();
+        if (ReplayFormat.isReplay(replayPath)) {
+            new java.io.File(spillPath(replayPath)).delete();
+        }
+    }
+
+    /**
+     * Bot processes of running games and processes that survived being killed
+     */
+    public ProcessSupervisor getProcessSupervisor() {
+        return processSupervisor;
+    }
+
+    /**
+     * Dispatcher of remote workers, null when games run in the server
+     */
+    public WorkerDispatcher getWorkerDispatcher() {
+        return workerDispatcher;
+    }
+
     /**
      * Calculate score based on steps taken vs minimum steps
      * Score formula: (minSteps / stepsTaken) * 100
@@ -177,7 +233,7 @@ public class GameExecutionService {
         return Math.min(100.0, score);
     }
 
-    public Map<String, Object> executeMultiplayerGame(int lobbyId) throws Exception {
+    public Map<String, Object> executeMultiplayerGame(int lobbyId, LiveGameFeed live) throws Exception {
         Lobby lobby = db.getLobby(lobbyId);
         if (lobby == null) {
             throw new IllegalArgumentException("Lobby not found");
@@ -196,54 +252,21 @@ public class GameExecutionService {
         System.out.println(
                 "Executing multiplayer game for lobby " + lobbyId + " with " + lobbyPlayers.size() + " players");
 
-        MazeInfoData mazeData;
-        try (FileReader reader = new FileReader(mazeModel.getFilePath())) {
-            mazeData = new Gson().fromJson(reader, MazeInfoData.class);
-        }
-
-        Maze maze = new Maze(mazeData);
-
-        GameEngine.GameConfig config = new GameEngine.GameConfig();
-        config.debug = 0;
-        config.turnInfo = 0;
-        config.maxTurns = 5000;
-        config.turnTimeoutMs = 100;
-        config.firstTurnTimeoutMs = 1000;
-        config.sheetsPerPlayer = 2;
-
-        List<String> playerJars = new ArrayList<>();
+        GameSpec spec = createSpec("lobby" + lobbyId, mazeModel, live);
+        spec.turnTimeoutMs = 100;
+        spec.logging = 1;
+        spec.simultaneousTurns = simultaneousTurns;
         for (LobbyPlayer lp : lobbyPlayers) {
             PlayerBot bot = db.getPlayerBotById(lp.getBotId());
             if (bot != null) {
-                playerJars.add(bot.getJarPath());
+                spec.botIds.add(bot.getId());
+                spec.playerJars.add(bot.getJarPath());
             }
         }
 
-        GameEngine engine = new GameEngine(maze, playerJars, config);
-        engine.setRandomSpawn(false);
-        engine.initialize();
-
-        Future<?> gameFuture = executor.submit(engine::runGame);
-
-        boolean timedOut = false;
-        try {
-            gameFuture.get(GAME_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-        } catch (TimeoutException e) {
-            gameFuture.cancel(true);
-            timedOut = true;
-            System.out.println("Multiplayer game timed out after " + GAME_TIMEOUT_SECONDS + " seconds");
-        }
-
-        List<GameState> history = engine.getGameHistory();
-        if (history.isEmpty()) {
-            throw new IllegalStateException("No game history available");
-        }
-
-        GameState finalState = history.getLast();
-        int stepsTaken = finalState.getTurnNumber();
-
-        String gameDataPath = gameDataDirectory + "/game_" + System.currentTimeMillis() + "_lobby" + lobbyId + ".json";
-        WebViewerExporter.exportToJSON(engine.getGameHistory(), mazeModel.getName(), gameDataPath);
+        String gameDataPath = replayPath(spec);
+        GameRunner.Outcome outcome = run(spec, gameDataPath);
+        int stepsTaken = outcome.stepsTaken;
 
         Map<Integer, GameResult> playerResults = new HashMap<>();
         int firstGameResultId = -1;
@@ -251,8 +274,7 @@ public class GameExecutionService {
             LobbyPlayer lp = lobbyPlayers.get(i);
             int playerId = i + 1;
 
-            GameState.PlayerSnapshot playerSnapshot = finalState.getPlayers().get(playerId);
-            boolean completed = playerSnapshot != null && playerSnapshot.finished() && !timedOut;
+            boolean completed = playerId <= outcome.finished.size() && outcome.finished.get(playerId - 1);
             double scorePercentage = calculateScore(stepsTaken, mazeModel.getMinSteps(), completed);
 
             GameResult result = db.createGameResult(
@@ -262,7 +284,8 @@ public class GameExecutionService {
                     stepsTaken,
                     scorePercentage,
                     completed,
-                    gameDataPath);
+                    gameDataPath,
+                    playerId <= outcome.latencyStats.size() ? outcome.latencyStats.get(playerId - 1) : null);
 
             playerResults.put(lp.getUserId(), result);
             if (firstGameResultId == -1) {
@@ -279,22 +302,18 @@ public class GameExecutionService {
         response.put("lobbyId", lobbyId);
         response.put("gameDataPath", gameDataPath);
         response.put("stepsTaken", stepsTaken);
-        response.put("timedOut", timedOut);
+        response.put("timedOut", outcome.timedOut);
         response.put("results", playerResults);
         return response;
     }
 
     /**
-     * Shutdown the executor
+     * Stop running games and the bot pool
      */
     public void shutdown() {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
+        if (runner != null) {
+            runner.shutdown();
+            botPool.shutdown();
         }
     }
 }
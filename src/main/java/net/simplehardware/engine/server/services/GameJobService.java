@@ -0,0 +1,199 @@
+package net.simplehardware.engine.server.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import net.simplehardware.engine.server.database.DatabaseManager;
+import net.simplehardware.engine.server.database.models.GameJob;
+import net.simplehardware.engine.server.database.models.GameResult;
+import net.simplehardware.engine.server.database.models.Maze;
+import net.simplehardware.engine.viewer.LiveGameFeed;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.*;
+
+/**
+ * Runs games in the background so that HTTP requests only queue them.
+ * Jobs are stored in the database first, which lets queued and interrupted jobs
+ * resume after a restart. The {@link GameScheduler} decides when a job runs.
+ * Callers wait for a job through {@link #awaitJob}.
+ */
+public class GameJobService {
+    private final DatabaseManager db;
+    private final GameExecutionService gameService;
+    private final GameScheduler scheduler;
+    private final LiveGameHub liveGames = new LiveGameHub();
+    private final Map<Integer, CompletableFuture<GameJob>> pending = new ConcurrentHashMap<>();
+    /** Reloads jobs for waiting callers, off the game threads and the JDK timeout thread */
+    private final ExecutorService waiters = Executors.newVirtualThreadPerTaskExecutor();
+    private final Gson gson = new Gson();
+
+    public GameJobService(DatabaseManager db, GameExecutionService gameService, Properties config) {
+        this.db = db;
+        this.gameService = gameService;
+        this.scheduler = new GameScheduler(
+                Integer.parseInt(config.getProperty("game.max.concurrent", "5")),
+                Integer.parseInt(config.getProperty("game.queue.max", "50")),
+                Integer.parseInt(config.getProperty("game.queue.max.per.user", "3")));
+    }
+
+    /**
+     * Resume jobs left over from the last run
+     */
+    public void start() throws SQLException {
+        int requeued = db.requeueRunningJobs();
+        List<GameJob> queued = db.getJobsByStatus(GameJob.QUEUED);
+        for (GameJob job : queued) {
+            int cost = GameJob.TYPE_LOBBY.equals(job.getJobType()) ? db.getLobbyPlayers(job.getLobbyId()).size() : 1;
+            schedule(job, cost);
+        }
+        System.out.println("Game jobs resumed: " + queued.size() + " queued (" + requeued + " interrupted)");
+    }
+
+    /**
+     * Queue a solo game of a user's bot on a maze
+     *
+     * @throws QueueFullException if the user or the server has too many games waiting
+     */
+    public synchronized GameJob submitSoloGame(int userId, int botId, int mazeId)
+            throws SQLException, QueueFullException {
+        scheduler.checkAdmission(userId);
+        GameJob job = db.createJob(userId, GameJob.TYPE_SOLO, botId, mazeId, null);
+        schedule(job, 1);
+        return job;
+    }
+
+    /**
+     * Queue the game of a lobby, started by its host
+     *
+     * @throws QueueFullException if the host or the server has too many games waiting
+     */
+    public synchronized GameJob submitLobbyGame(int hostUserId, int lobbyId, int playerCount)
+            throws SQLException, QueueFullException {
+        scheduler.checkAdmission(hostUserId);
+        GameJob job = db.createJob(hostUserId, GameJob.TYPE_LOBBY, null, null, lobbyId);
+        schedule(job, playerCount);
+        return job;
+    }
+
+    /**
+     * Wait until a job is finished, or until the wait time is over
+     *
+     * @return completes with the job as stored at that moment, or null if it does not exist
+     */
+    public CompletableFuture<GameJob> awaitJob(int jobId, long waitMs) throws SQLException {
+        CompletableFuture<GameJob> completion = pending.get(jobId);
+        GameJob job = db.getJob(jobId);
+        if (job == null || job.isFinished() || completion == null || waitMs <= 0) {
+            return CompletableFuture.completedFuture(job);
+        }
+        return completion.thenApply(finished -> finished)
+                .completeOnTimeout(job, waitMs, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(result -> result == job ? reload(jobId, job) : result, waiters);
+    }
+
+    private GameJob reload(int jobId, GameJob fallback) {
+        try {
+            GameJob current = db.getJob(jobId);
+            return current != null ? current : fallback;
+        } catch (SQLException e) {
+            return fallback;
+        }
+    }
+
+    private void schedule(GameJob job, int botProcesses) {
+        CompletableFuture<GameJob> completion = new CompletableFuture<>();
+        pending.put(job.getId(), completion);
+        liveGames.open(job.getId(), job.getLobbyId());
+        scheduler.submit(job.getUserId(), botProcesses, () -> run(job.getId(), completion));
+    }
+
+    private void run(int jobId, CompletableFuture<GameJob> completion) {
+        GameJob job = null;
+        try {
+            if (!db.markJobRunning(jobId)) {
+                return;
+            }
+            job = db.getJob(jobId);
+            LiveGameFeed live = liveGames.get(jobId);
+            Map<String, Object> response = GameJob.TYPE_LOBBY.equals(job.getJobType())
+                    ? runLobbyGame(job, live)
+                    : runSoloGame(job, live);
+            db.completeJob(jobId, gson.toJson(response));
+        } catch (Exception e) {
+            if (scheduler.isShutdown()) {
+                // Still RUNNING in the database, requeued on the next start
+                System.out.println("Game job " + jobId + " interrupted by shutdown");
+                return;
+            }
+            System.err.println("Game job " + jobId + " failed: " + e.getMessage());
+            e.printStackTrace();
+            failJob(job, jobId, e);
+        } finally {
+            liveGames.close(jobId, job != null ? job.getLobbyId() : null);
+            pending.remove(jobId);
+            completion.complete(reload(jobId, job));
+        }
+    }
+
+    private Map<String, Object> runSoloGame(GameJob job, LiveGameFeed live) throws Exception {
+        GameResult result = gameService.executeGame(job.getUserId(), job.getBotId(), job.getMazeId(), live);
+        Maze maze = db.getMazeById(job.getMazeId());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("gameId", result.getId());
+        response.put("mazeName", maze.getName());
+        response.put("difficulty", maze.getDifficulty().name());
+        response.put("stepsTaken", result.getStepsTaken());
+        response.put("minSteps", maze.getMinSteps());
+        response.put("score", result.getScorePercentage());
+        response.put("completed", result.isCompleted());
+        if (result.getLatencyStats() != null) {
+            response.put("latency", JsonParser.parseString(result.getLatencyStats()));
+        }
+        return response;
+    }
+
+    private Map<String, Object> runLobbyGame(GameJob job, LiveGameFeed live) throws Exception {
+        Map<String, Object> result = gameService.executeMultiplayerGame(job.getLobbyId(), live);
+        return Map.of("success", true, "lobbyId", job.getLobbyId(), "result", result);
+    }
+
+    private void failJob(GameJob job, int jobId, Exception error) {
+        try {
+            db.failJob(jobId, String.valueOf(error.getMessage()));
+            if (job != null && job.getLobbyId() != null) {
+                // Let the host start the lobby again
+                db.updateLobbyStatus(job.getLobbyId(), "WAITING");
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to record failure of game job " + jobId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Capacity, running and queued work of the scheduler
+     */
+    public Map<String, Object> getSchedulerStatus() {
+        return scheduler.getStatus();
+    }
+
+    /**
+     * Live feeds of queued and running jobs
+     */
+    public LiveGameHub getLiveGames() {
+        return liveGames;
+    }
+
+    /**
+     * Stop taking jobs, unfinished ones stay in the database and resume on the next start
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        waiters.shutdown();
+    }
+}
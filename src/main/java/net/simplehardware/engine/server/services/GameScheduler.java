@@ -0,0 +1,152 @@
+package net.simplehardware.engine.server.services;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Admission control and fair queuing for game jobs.
+ * Capacity is counted in bot processes, a solo game costs 1 and a lobby game one per player.
+ * Each user has their own queue and users take turns in round-robin order, so one user
+ * submitting many games cannot push everybody else back. A job that does not fit into the
+ * free capacity waits until enough running games have finished.
+ */
+public class GameScheduler {
+    private final int capacity;
+    private final int maxQueued;
+    private final int maxQueuedPerUser;
+    private final ExecutorService runner;
+
+    /** Users with queued jobs, in round-robin order */
+    private final LinkedHashMap<Integer, ArrayDeque<Task>> queues = new LinkedHashMap<>();
+    private int queuedJobs;
+    private int queuedCost;
+    private int runningCost;
+    private int runningJobs;
+    private double averageRunSeconds = 10;
+
+    private record Task(int userId, int cost, Runnable work) {
+    }
+
+    /**
+     * @param capacity         bot processes that may run at once
+     * @param maxQueued        queued jobs over all users
+     * @param maxQueuedPerUser queued jobs of a single user
+     */
+    public GameScheduler(int capacity, int maxQueued, int maxQueuedPerUser) {
+        this.capacity = Math.max(1, capacity);
+        this.maxQueued = maxQueued;
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.runner = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "game-job");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Check whether a user may queue another job
+     *
+     * @throws QueueFullException if the queue limits are reached
+     */
+    public synchronized void checkAdmission(int userId) throws QueueFullException {
+        if (runner.isShutdown()) {
+            throw new QueueFullException("Server is shutting down", 30);
+        }
+        ArrayDeque<Task> queue = queues.get(userId);
+        if (queue != null && queue.size() >= maxQueuedPerUser) {
+            throw new QueueFullException("You already have " + queue.size() + " games waiting", retryAfterSeconds());
+        }
+        if (queuedJobs >= maxQueued) {
+            throw new QueueFullException("Game queue is full", retryAfterSeconds());
+        }
+    }
+
+    /**
+     * Queue a job without admission check, it runs once its user's turn comes and its cost fits
+     *
+     * @param cost bot processes the job starts, capped at the total capacity
+     */
+    public synchronized void submit(int userId, int cost, Runnable work) {
+        Task task = new Task(userId, Math.clamp(cost, 1, capacity), work);
+        queues.computeIfAbsent(userId, id -> new ArrayDeque<>()).add(task);
+        queuedJobs++;
+        queuedCost += task.cost();
+        dispatch();
+    }
+
+    /**
+     * Start queued jobs while the next one in round-robin order fits
+     */
+    private void dispatch() {
+        while (!queues.isEmpty() && !runner.isShutdown()) {
+            Iterator<Map.Entry<Integer, ArrayDeque<Task>>> users = queues.entrySet().iterator();
+            Map.Entry<Integer, ArrayDeque<Task>> next = users.next();
+            Task task = next.getValue().peek();
+            if (runningCost + task.cost() > capacity) {
+                return;
+            }
+
+            ArrayDeque<Task> queue = next.getValue();
+            queue.poll();
+            users.remove();
+            if (!queue.isEmpty()) {
+                // Back of the rotation
+                queues.put(task.userId(), queue);
+            }
+            queuedJobs--;
+            queuedCost -= task.cost();
+            runningCost += task.cost();
+            runningJobs++;
+            runner.execute(() -> run(task));
+        }
+    }
+
+    private void run(Task task) {
+        long start = System.nanoTime();
+        try {
+            task.work().run();
+        } finally {
+            finished(task, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private synchronized void finished(Task task, double seconds) {
+        runningCost -= task.cost();
+        runningJobs--;
+        averageRunSeconds = averageRunSeconds * 0.8 + seconds * 0.2;
+        dispatch();
+    }
+
+    /**
+     * Rough time until the queued work has drained enough to accept a new job
+     */
+    private int retryAfterSeconds() {
+        double rounds = Math.max(1.0, (double) queuedCost / capacity);
+        return (int) Math.max(1, Math.ceil(rounds * averageRunSeconds));
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("capacity", capacity);
+        status.put("running_jobs", runningJobs);
+        status.put("running_bot_processes", runningCost);
+        status.put("queued_jobs", queuedJobs);
+        status.put("queued_users", queues.size());
+        return status;
+    }
+
+    public boolean isShutdown() {
+        return runner.isShutdown();
+    }
+
+    /**
+     * Stop starting jobs and interrupt running ones
+     */
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+package net.simplehardware.engine.server.services;
+
+import net.simplehardware.engine.viewer.LiveGameFeed;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live feeds of queued and running games, by job and by lobby
+ */
+public class LiveGameHub {
+    private final Map<Integer, LiveGameFeed> feedsByJob = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> jobsByLobby = new ConcurrentHashMap<>();
+
+    /**
+     * Open the feed of a job, spectators can connect before the game starts
+     */
+    public LiveGameFeed open(int jobId, Integer lobbyId) {
+        LiveGameFeed feed = new LiveGameFeed(null);
+        feedsByJob.put(jobId, feed);
+        if (lobbyId != null) {
+            jobsByLobby.put(lobbyId, jobId);
+        }
+        return feed;
+    }
+
+    /**
+     * Feed of a job, null once the job is over
+     */
+    public LiveGameFeed get(int jobId) {
+        return feedsByJob.get(jobId);
+    }
+
+    /**
+     * Feed of the game a lobby is playing, null if there is none
+     */
+    public LiveGameFeed getByLobby(int lobbyId) {
+        Integer jobId = jobsByLobby.get(lobbyId);
+        return jobId != null ? feedsByJob.get(jobId) : null;
+    }
+
+    /**
+     * End a job's feed, connected spectators still get the rest of it
+     */
+    public void close(int jobId, Integer lobbyId) {
+        LiveGameFeed feed = feedsByJob.remove(jobId);
+        if (feed != null) {
+            feed.finish();
+        }
+        if (lobbyId != null) {
+            jobsByLobby.remove(lobbyId, jobId);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("live_games", feedsByJob.size());
+        status.put("spectators", feedsByJob.values().stream().mapToInt(LiveGameFeed::getSpectatorCount).sum());
+        return status;
+    }
+}
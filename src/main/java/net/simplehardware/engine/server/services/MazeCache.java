@@ -0,0 +1,52 @@
+package net.simplehardware.engine.server.services;
+
+import com.google.gson.Gson;
+import net.simplehardware.engine.game.CompiledMaze;
+import net.simplehardware.engine.server.database.models.Maze;
+import net.simplehardware.models.MazeInfoData;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compiled mazes of recently played maze rows, least recently used ones are dropped first.
+ * Maze files never change once generated, an entry is only reloaded if its row points to another file.
+ */
+public class MazeCache {
+    private final Gson gson = new Gson();
+    private final Map<Integer, Entry> entries;
+
+    private record Entry(String filePath, CompiledMaze maze) {
+    }
+
+    public MazeCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public CompiledMaze get(Maze mazeModel) throws IOException {
+        synchronized (entries) {
+            Entry entry = entries.get(mazeModel.getId());
+            if (entry != null && entry.filePath().equals(mazeModel.getFilePath())) {
+                return entry.maze();
+            }
+        }
+
+        // Compiled outside the lock, two games starting on a new maze at once may both load it
+        MazeInfoData data;
+        try (FileReader reader = new FileReader(mazeModel.getFilePath())) {
+            data = gson.fromJson(reader, MazeInfoData.class);
+        }
+        CompiledMaze maze = CompiledMaze.compile(data);
+        synchronized (entries) {
+            entries.put(mazeModel.getId(), new Entry(mazeModel.getFilePath(), maze));
+        }
+        return maze;
+    }
+}
@@ -1,9 +1,14 @@
 package net.simplehardware.engine.server.services;
 
+import com.google.gson.Gson;
+import net.simplehardware.engine.game.CompiledMaze;
+import net.simplehardware.engine.game.MazeSolver;
 import net.simplehardware.engine.server.database.DatabaseManager;
 import net.simplehardware.engine.server.database.models.Maze;
+import net.simplehardware.models.MazeInfoData;
 
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
 import java.util.List;
 import java.util.Random;
@@ -12,7 +17,9 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Service for generating mazes automatically
+ * Service for generating mazes automatically.
+ * The minimum steps of each maze are computed with {@link MazeSolver}, mazes created before
+ * that are solved in the background on start.
  */
 public class MazeGenerationService {
     private final DatabaseManager db;
@@ -117,6 +124,7 @@ public class MazeGenerationService {
      */
     public void startScheduledGeneration(int intervalHours) {
         System.out.println("Starting maze generation service (every " + intervalHours + " hours)");
+        scheduler.execute(this::solveExistingMazes);
         generateMazeBatch();
 
         scheduler.scheduleAtFixedRate(
@@ -239,6 +247,51 @@ public class MazeGenerationService {
         Maze maze = db.createMaze(
                 mazeName, outputPath, targetSteps, forms, size, difficulty);
         System.out.println("  ✓ Maze created with ID: " + maze.getId() + ", target steps: " + targetSteps);
+        storeSolvedMinSteps(maze);
+    }
+
+    /**
+     * Solve the mazes still scored against the generator's target steps
+     */
+    private void solveExistingMazes() {
+        try {
+            List<Maze> mazes = db.getUnsolvedMazes();
+            if (mazes.isEmpty()) {
+                return;
+            }
+            System.out.println("Solving minimum steps of " + mazes.size() + " existing mazes");
+            for (Maze maze : mazes) {
+                try {
+                    storeSolvedMinSteps(maze);
+                } catch (Exception e) {
+                    System.err.println("Failed to solve maze " + maze.getName() + ": " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error solving existing mazes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace a maze's minimum steps with the steps of a perfect solo game.
+     * A maze the solver finds no route through keeps its target steps.
+     */
+    private void storeSolvedMinSteps(Maze maze) throws Exception {
+        CompiledMaze compiled;
+        try (FileReader reader = new FileReader(maze.getFilePath())) {
+            compiled = CompiledMaze.compile(new Gson().fromJson(reader, MazeInfoData.class));
+        }
+        // Server games are solo games of player 1
+        MazeSolver.Route route = MazeSolver.solve(compiled, 1);
+        if (route == null) {
+            System.err.println("  Maze " + maze.getName() + " has no route to the finish, keeping "
+                    + maze.getMinSteps() + " steps");
+            db.setMazeMinSteps(maze.getId(), maze.getMinSteps());
+            return;
+        }
+        db.setMazeMinSteps(maze.getId(), route.stepsTaken());
+        System.out.println("  Maze " + maze.getName() + " minimum steps: " + route.stepsTaken()
+                + " (target was " + maze.getMinSteps() + ")");
     }
 
 }
@@ -0,0 +1,25 @@
+package net.simplehardware.engine.server.services;
+
+import java.io.Serial;
+
+/**
+ * Thrown when the game queue does not accept more jobs right now
+ */
+public class QueueFullException extends Exception {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int retryAfterSeconds;
+
+    public QueueFullException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Estimated time until a new job would be accepted
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
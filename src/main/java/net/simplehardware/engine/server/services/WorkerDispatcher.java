@@ -0,0 +1,260 @@
+package net.simplehardware.engine.server.services;
+
+import net.simplehardware.engine.viewer.LiveGameFeed;
+import net.simplehardware.engine.worker.GameRunner;
+import net.simplehardware.engine.worker.GameSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Hands games to remote workers instead of running them in the server.
+ * A game waits until a worker claims it. The worker has to confirm the lease within a few
+ * seconds, since the long poll it was handed to may belong to a worker that is gone, and then
+ * holds it for the game's time limit plus some slack. Games whose lease runs out are handed out again.
+ */
+public class WorkerDispatcher {
+    private static final int LEASE_GRACE_SECONDS = 60;
+    private static final int CONFIRM_SECONDS = 10;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ArrayDeque<Assignment> ready = new ArrayDeque<>();
+    private final ArrayDeque<Waiting> idleWorkers = new ArrayDeque<>();
+    private final Map<String, Assignment> leased = new ConcurrentHashMap<>();
+
+    /**
+     * A game handed out or waiting to be handed out
+     */
+    public static class Assignment {
+        private final GameSpec spec;
+        private final Path replayPath;
+        private final CompletableFuture<GameRunner.Outcome> result = new CompletableFuture<>();
+        private volatile String leaseId;
+        private volatile String workerName;
+        private volatile long leaseExpiresNanos;
+        private volatile boolean confirmed;
+        private volatile boolean replayReceived;
+        private int attempts;
+
+        private Assignment(GameSpec spec, Path replayPath) {
+            this.spec = spec;
+            this.replayPath = replayPath;
+        }
+
+        public GameSpec getSpec() {
+            return spec;
+        }
+
+        public String getLeaseId() {
+            return leaseId;
+        }
+    }
+
+    private record Waiting(String workerName, CompletableFuture<Assignment> claim) {
+    }
+
+    /**
+     * Run a game on the next free worker and wait for its outcome
+     *
+     * @param replayPath where the replay uploaded by the worker is stored
+     */
+    public GameRunner.Outcome execute(GameSpec spec, String replayPath) throws Exception {
+        Assignment assignment = new Assignment(spec, Path.of(replayPath));
+        offer(assignment, false);
+        try {
+            while (true) {
+                try {
+                    return assignment.result.get(1, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    checkLease(assignment);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            withdraw(assignment);
+        }
+    }
+
+    /**
+     * Wait for a game to run
+     *
+     * @return completes with the leased game, or null if none came up within the wait time
+     */
+    public synchronized CompletableFuture<Assignment> claim(String workerName, long waitMs) {
+        idleWorkers.removeIf(waiting -> waiting.claim().isDone());
+        Assignment assignment = ready.poll();
+        if (assignment != null) {
+            lease(assignment, workerName);
+            return CompletableFuture.completedFuture(assignment);
+        }
+        CompletableFuture<Assignment> claim = new CompletableFuture<>();
+        claim.completeOnTimeout(null, waitMs, TimeUnit.MILLISECONDS);
+        idleWorkers.add(new Waiting(workerName, claim));
+        return claim;
+    }
+
+    /**
+     * Game held by a worker, null if the lease is unknown or expired
+     */
+    public Assignment getLease(String leaseId) {
+        return leased.get(leaseId);
+    }
+
+    /**
+     * Confirm that a worker received its game, the lease then lasts for the whole game
+     *
+     * @return false if the lease is unknown or expired
+     */
+    public boolean confirm(String leaseId) {
+        Assignment assignment = leased.get(leaseId);
+        if (assignment == null) {
+            return false;
+        }
+        long leaseSeconds = assignment.spec.timeoutSeconds + assignment.spec.startupTimeoutMs / 1000 + LEASE_GRACE_SECONDS;
+        assignment.leaseExpiresNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(leaseSeconds);
+        assignment.confirmed = true;
+        return true;
+    }
+
+    /**
+     * Pass the turns a worker streams for its lease on to the game's spectators.
+     * Blocks until the worker ends the stream, or until the lease expires: the feed is
+     * restarted then, which stops frames of this lease from reaching it.
+     *
+     * @return false if the lease is unknown or expired
+     */
+    public boolean relayLive(String leaseId, InputStream stream) throws IOException {
+        Assignment assignment = leased.get(leaseId);
+        if (assignment == null) {
+            return false;
+        }
+        LiveGameFeed feed = assignment.spec.liveFeed;
+        if (feed == null) {
+            stream.transferTo(OutputStream.nullOutputStream());
+            return leased.containsKey(leaseId);
+        }
+        // Taken before the lease check, a restart for a newer lease can only come after it
+        int generation = feed.getGeneration();
+        if (!leased.containsKey(leaseId)) {
+            return false;
+        }
+        return feed.readFrom(stream, generation) && leased.containsKey(leaseId);
+    }
+
+    /**
+     * Store the replay a worker uploads for its lease
+     *
+     * @return false if the lease is unknown or expired
+     */
+    public boolean receiveReplay(String leaseId, InputStream replay) throws IOException {
+        Assignment assignment = leased.get(leaseId);
+        if (assignment == null) {
+            return false;
+        }
+        Files.copy(replay, assignment.replayPath, StandardCopyOption.REPLACE_EXISTING);
+        assignment.replayReceived = true;
+        return true;
+    }
+
+    /**
+     * Finish a lease with the outcome of its game, or with the error that stopped it
+     *
+     * @return false if the lease is unknown or expired
+     */
+    public synchronized boolean complete(String leaseId, GameRunner.Outcome outcome, String error) {
+        Assignment assignment = leased.remove(leaseId);
+        if (assignment == null) {
+            return false;
+        }
+        if (error != null) {
+            assignment.result.completeExceptionally(
+                    new IllegalStateException("Worker " + assignment.workerName + ": " + error));
+        } else if (!assignment.replayReceived) {
+            assignment.result.completeExceptionally(new IllegalStateException("Worker sent no replay"));
+        } else if (outcome == null || outcome.finished.size() != assignment.spec.botIds.size()) {
+            assignment.result.completeExceptionally(new IllegalStateException("Worker sent an invalid outcome"));
+        } else {
+            assignment.result.complete(outcome);
+        }
+        return true;
+    }
+
+    private synchronized void offer(Assignment assignment, boolean retry) {
+        Waiting waiting;
+        while ((waiting = idleWorkers.poll()) != null) {
+            lease(assignment, waiting.workerName());
+            if (waiting.claim().complete(assignment)) {
+                return;
+            }
+            // The worker's wait ran out in the meantime
+            leased.remove(assignment.leaseId);
+            assignment.attempts--;
+        }
+        assignment.leaseId = null;
+        if (retry) {
+            ready.addFirst(assignment);
+        } else {
+            ready.addLast(assignment);
+        }
+    }
+
+    private void lease(Assignment assignment, String workerName) {
+        assignment.leaseId = UUID.randomUUID().toString();
+        assignment.workerName = workerName;
+        assignment.leaseExpiresNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(CONFIRM_SECONDS);
+        assignment.confirmed = false;
+        assignment.replayReceived = false;
+        assignment.attempts++;
+        leased.put(assignment.leaseId, assignment);
+    }
+
+    private synchronized void checkLease(Assignment assignment) {
+        String leaseId = assignment.leaseId;
+        if (leaseId == null || System.nanoTime() < assignment.leaseExpiresNanos || leased.remove(leaseId) == null) {
+            return;
+        }
+        if (assignment.spec.liveFeed != null) {
+            // Spectators start over with the next worker, frames still coming from this one are dropped
+            assignment.spec.liveFeed.restart();
+        }
+        if (!assignment.confirmed) {
+            // Never reached the worker, does not count as an attempt
+            assignment.attempts--;
+            offer(assignment, true);
+            return;
+        }
+        System.err.println("Worker " + assignment.workerName + " did not finish game " + assignment.spec.logName
+                + " in time (attempt " + assignment.attempts + ")");
+        if (assignment.attempts >= MAX_ATTEMPTS) {
+            assignment.result.completeExceptionally(
+                    new IllegalStateException("No worker finished the game after " + MAX_ATTEMPTS + " attempts"));
+        } else {
+            offer(assignment, true);
+        }
+    }
+
+    private synchronized void withdraw(Assignment assignment) {
+        ready.remove(assignment);
+        if (assignment.leaseId != null) {
+            leased.remove(assignment.leaseId);
+        }
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("waiting_games", ready.size());
+        status.put("leased_games", leased.size());
+        status.put("idle_workers", idleWorkers.stream().filter(waiting -> !waiting.claim().isDone()).count());
+        return status;
+    }
+}
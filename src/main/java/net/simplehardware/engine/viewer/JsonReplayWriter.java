@@ -0,0 +1,81 @@
+package net.simplehardware.engine.viewer;
+
+import com.google.gson.Gson;
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.viewer.elements.GameState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a game as a JSON replay in the {@link WebViewerExporter} format while it runs, one turn at a time,
+ * gzip compressed if the path ends with .gz. Frames go straight to the file, none are kept in memory.
+ */
+public class JsonReplayWriter implements GameEngine.TurnListener, Closeable {
+    private final String outputPath;
+    private final OutputStream out;
+    private final WebViewerExporter.FrameEncoder encoder = new WebViewerExporter.FrameEncoder();
+    private final Gson gson = new Gson();
+    private int frameCount;
+    private IOException failure;
+    private boolean closed;
+
+    public JsonReplayWriter(String outputPath, String mazeName) throws IOException {
+        this.outputPath = outputPath;
+        this.out = WebViewerExporter.openReplayOutput(outputPath);
+        try {
+            out.write(("{\"n\":" + gson.toJson(mazeName) + ",\"h\":[").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Encode and write the next turn. Write failures are kept and thrown by {@link #close()},
+     * the game itself goes on.
+     */
+    @Override
+    public void onTurn(GameState state) {
+        writeFrame(gson.toJson(encoder.next(state)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write an already encoded history entry, e.g. the one a {@link LiveGameFeed} made for its spectators.
+     * Use either this or {@link #onTurn} for a game, not both.
+     */
+    public synchronized void writeFrame(byte[] json) {
+        if (failure != null || closed) {
+            return;
+        }
+        try {
+            if (frameCount > 0) {
+                out.write(',');
+            }
+            out.write(json);
+            frameCount++;
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            if (failure != null) {
+                throw failure;
+            }
+            out.write(']');
+            out.write('}');
+        }
+        System.out.println("Game data exported to: " + outputPath + " (" + Files.size(Path.of(outputPath)) + " bytes)");
+    }
+}
@@ -0,0 +1,294 @@
+package net.simplehardware.engine.viewer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.viewer.elements.GameState;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replay frames of a running game, encoded once and shared by all spectators.
+ * Each captured turn becomes one JSON history entry as written by {@link WebViewerExporter};
+ * spectators receive the same bytes as Server-Sent Events, and {@link #encode} lets a
+ * {@link JsonReplayWriter} store them as the turn happens, so a game needs no second export.
+ * <p>
+ * Stream format: {@code event: start} with {@code {"n": mazeName}} before the first frame,
+ * one {@code data:} event per history entry, then {@code event: end} once the game is over.
+ * If the game starts over, e.g. on another worker, {@link #restart()} drops the frames and
+ * spectators get a new {@code event: start}.
+ * <p>
+ * Spectators wait on a {@link ReentrantLock} rather than a monitor, so the virtual threads
+ * they run on unmount while waiting instead of pinning a carrier.
+ */
+public class LiveGameFeed implements GameEngine.TurnListener {
+    private static final byte[] DATA_PREFIX = "data: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_SUFFIX = "\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END_EVENT = "event: end\ndata: {}\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final long HEARTBEAT_MS = 15000;
+
+    private final WebViewerExporter.FrameEncoder encoder = new WebViewerExporter.FrameEncoder();
+    private final Gson gson = new Gson();
+    private final List<byte[]> frames = new ArrayList<>();
+    private final AtomicInteger spectators = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile String mazeName;
+    private boolean finished;
+    private int generation;
+
+    /**
+     * New frames from a cursor on, generation tells whether the cursor still applies
+     */
+    private record Batch(List<byte[]> frames, boolean done, int generation) {
+    }
+
+    public LiveGameFeed(String mazeName) {
+        this.mazeName = mazeName;
+    }
+
+    public void setMazeName(String mazeName) {
+        this.mazeName = mazeName;
+    }
+
+    @Override
+    public void onTurn(GameState state) {
+        appendFrame(encode(state));
+    }
+
+    /**
+     * History entry of the next turn, not added to the feed yet. Turns have to be passed in game order,
+     * either here or to {@link #onTurn}.
+     */
+    public byte[] encode(GameState state) {
+        return gson.toJson(encoder.next(state)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Add an already encoded history entry
+     */
+    public void appendFrame(byte[] json) {
+        lock.lock();
+        try {
+            appendFrame(json, generation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add an already encoded history entry of the given run of the game
+     *
+     * @return false if the feed was restarted or finished since that run began, the frame is dropped
+     */
+    public boolean appendFrame(byte[] json, int generation) {
+        lock.lock();
+        try {
+            if (finished || generation != this.generation) {
+                return false;
+            }
+            frames.add(json);
+            changed.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop all frames because the game starts over, frames of the previous run are no longer accepted
+     */
+    public void restart() {
+        lock.lock();
+        try {
+            frames.clear();
+            generation++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current run of the game, pass it to {@link #readFrom} to only accept frames of this run
+     */
+    public int getGeneration() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark the game as over, spectators get the end event after the remaining frames
+     */
+    public void finish() {
+        lock.lock();
+        try {
+            finished = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getFrameCount() {
+        lock.lock();
+        try {
+            return frames.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSpectatorCount() {
+        return spectators.get();
+    }
+
+    /**
+     * Send the stream from its start to one spectator, returns when the game is over.
+     * Frames are written as stored, only the event framing is added per spectator.
+     *
+     * @throws IOException if the spectator went away
+     */
+    public void stream(OutputStream out) throws IOException, InterruptedException {
+        spectators.incrementAndGet();
+        try {
+            int cursor = 0;
+            int seen = getGeneration();
+            boolean done = false;
+            while (!done) {
+                Batch batch = await(cursor, seen);
+                if (batch.generation() != seen) {
+                    seen = batch.generation();
+                    cursor = 0;
+                }
+                writeBatch(out, cursor, batch);
+                out.flush();
+                cursor += batch.frames().size();
+                done = batch.done();
+            }
+        } finally {
+            spectators.decrementAndGet();
+        }
+    }
+
+    /**
+     * The stream as an input stream, e.g. to upload it; reads block until the next frame
+     */
+    public InputStream openStream() {
+        return new InputStream() {
+            private byte[] buffer = new byte[0];
+            private int position;
+            private int cursor;
+            private int seen = getGeneration();
+            private boolean done;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                while (position == buffer.length) {
+                    if (done) {
+                        return -1;
+                    }
+                    try {
+                        Batch batch = await(cursor, seen);
+                        if (batch.generation() != seen) {
+                            seen = batch.generation();
+                            cursor = 0;
+                        }
+                        ByteArrayOutputStream next = new ByteArrayOutputStream();
+                        writeBatch(next, cursor, batch);
+                        buffer = next.toByteArray();
+                        position = 0;
+                        cursor += batch.frames().size();
+                        done = batch.done();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Live stream interrupted");
+                    }
+                }
+                int count = Math.min(len, buffer.length - position);
+                System.arraycopy(buffer, position, b, off, count);
+                position += count;
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Append the frames of another feed's stream, e.g. one uploaded by a remote worker.
+     * Start and end events are left out, this feed has its own.
+     *
+     * @param generation run of the game the stream belongs to, see {@link #getGeneration()}
+     * @return false if reading stopped because the feed was restarted or finished meanwhile
+     */
+    public boolean readFrom(InputStream in, int generation) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String eventType = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                eventType = null;
+            } else if (line.startsWith("event: ")) {
+                eventType = line.substring(7);
+            } else if (line.startsWith("data: ") && eventType == null) {
+                if (!appendFrame(line.substring(6).getBytes(StandardCharsets.UTF_8), generation)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private Batch await(int cursor, int seen) throws InterruptedException {
+        lock.lock();
+        try {
+            if (seen == generation && cursor == frames.size() && !finished) {
+                changed.await(HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+            }
+            if (seen != generation) {
+                cursor = 0;
+            }
+            return new Batch(List.copyOf(frames.subList(cursor, frames.size())), finished, generation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeBatch(OutputStream out, int cursor, Batch batch) throws IOException {
+        if (batch.frames().isEmpty() && !batch.done()) {
+            // Keeps proxies from closing the connection and notices spectators that left
+            out.write(HEARTBEAT);
+            return;
+        }
+        if (cursor == 0 && !batch.frames().isEmpty()) {
+            JsonObject start = new JsonObject();
+            start.addProperty("n", mazeName);
+            out.write(("event: start\ndata: " + gson.toJson(start) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+        for (byte[] frame : batch.frames()) {
+            out.write(DATA_PREFIX);
+            out.write(frame);
+            out.write(EVENT_SUFFIX);
+        }
+        if (batch.done()) {
+            out.write(END_EVENT);
+        }
+    }
+}
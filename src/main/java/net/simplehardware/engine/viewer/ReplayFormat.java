@@ -0,0 +1,174 @@
+package net.simplehardware.engine.viewer;
+
+import net.simplehardware.engine.viewer.elements.CellSnapshot;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Seekable binary replay, the compact alternative to the JSON export of {@link WebViewerExporter}.
+ * <pre>
+ * file     = "MRR1" keyframeInterval width height mazeName chunk* index footer
+ * chunk    = raw deflate of a keyframe and the deltas up to the next keyframe
+ * frame    = 0 turnNumber players cells logs            (keyframe, every keyframeInterval-th frame)
+ *          | 1 turnStep players changedCells logs       (delta to the previous frame)
+ * players  = count (id x y score formsCollected formsRequired flags timeBankMs)*
+ * cells    = cell* in x-major order, changedCells = count (x y cell)*
+ * logs     = count (playerId stdout stderr)*
+ * index    = frameCount lastTurnNumber keyframeInterval width height mazeName chunkCount offsetStep*
+ * footer   = indexOffset as 8 byte big endian, "MRRX"
+ * slice    = frameCount lastTurnNumber keyframeInterval width height mazeName from count
+ *            raw deflate of a keyframe at from and the frames after it
+ * </pre>
+ * Numbers are unsigned LEB128 varints, score and time bank are zigzag encoded, strings are a byte
+ * length and UTF-8. Deltas only list the players, cells and logs that changed. A reader finds the
+ * index through the fixed size footer and inflates the chunk holding the turn it wants, so it
+ * reads at most one keyframe interval whatever the length of the game. Slices are sent to the
+ * viewer, they start with a keyframe at any turn and carry the stored frames after it unchanged.
+ */
+public final class ReplayFormat {
+    public static final String EXTENSION = ".mrr";
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 100;
+
+    static final byte[] MAGIC = "MRR1".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] INDEX_MAGIC = "MRRX".getBytes(StandardCharsets.US_ASCII);
+    static final int FOOTER_SIZE = 12;
+    static final int KEYFRAME = 0;
+    static final int DELTA = 1;
+
+    // Cell header bits, the low two bits are the cell type
+    private static final int CELL_SHEET = 4;
+    private static final int CELL_FORM = 8;
+    private static final int CELL_FORM_OWNER = 16;
+    private static final int CELL_FINISH_PLAYER = 32;
+
+    private static final int PLAYER_ACTIVE = 1;
+    private static final int PLAYER_FINISHED = 2;
+
+    private ReplayFormat() {
+    }
+
+    public static boolean isReplay(String path) {
+        return path != null && path.endsWith(EXTENSION);
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    static int readInt(ByteBuffer in) {
+        return (int) readVarint(in);
+    }
+
+    static long readSigned(ByteBuffer in) {
+        long value = readVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = readInt(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    static void writeKeyframe(ByteArrayOutputStream out, int turnNumber,
+            Collection<GameState.PlayerSnapshot> players, CellSnapshot[][] cells, Map<Integer, PlayerLog> logs) {
+        out.write(KEYFRAME);
+        writeVarint(out, turnNumber);
+        writeVarint(out, players.size());
+        for (GameState.PlayerSnapshot player : players) {
+            writePlayer(out, player);
+        }
+        for (CellSnapshot[] column : cells) {
+            for (CellSnapshot cell : column) {
+                writeCell(out, cell);
+            }
+        }
+        writeVarint(out, logs.size());
+        for (Map.Entry<Integer, PlayerLog> entry : logs.entrySet()) {
+            writeLog(out, entry.getKey(), entry.getValue());
+        }
+    }
+
+    static void writeLog(ByteArrayOutputStream out, int playerId, PlayerLog log) {
+        writeVarint(out, playerId);
+        writeString(out, log.stdout());
+        writeString(out, log.stderr());
+    }
+
+    static void writeCell(ByteArrayOutputStream out, CellSnapshot cell) {
+        int header = cell.type().ordinal();
+        if (cell.hasSheet()) header |= CELL_SHEET;
+        if (cell.form() != null) header |= CELL_FORM;
+        if (cell.formOwner() != null) header |= CELL_FORM_OWNER;
+        if (cell.finishPlayerId() != null) header |= CELL_FINISH_PLAYER;
+        writeVarint(out, header);
+        if (cell.form() != null) writeVarint(out, cell.form());
+        if (cell.formOwner() != null) writeVarint(out, cell.formOwner());
+        if (cell.finishPlayerId() != null) writeVarint(out, cell.finishPlayerId());
+    }
+
+    static CellSnapshot readCell(ByteBuffer in, int x, int y) {
+        int header = readInt(in);
+        CellSnapshot.CellType type = CellSnapshot.CellType.values()[header & 3];
+        Character form = (header & CELL_FORM) != 0 ? (char) readInt(in) : null;
+        Integer formOwner = (header & CELL_FORM_OWNER) != 0 ? readInt(in) : null;
+        Integer finishPlayerId = (header & CELL_FINISH_PLAYER) != 0 ? readInt(in) : null;
+        return new CellSnapshot(type, x, y, form, formOwner, (header & CELL_SHEET) != 0, finishPlayerId);
+    }
+
+    static void writePlayer(ByteArrayOutputStream out, GameState.PlayerSnapshot p) {
+        writeVarint(out, p.id());
+        writeVarint(out, p.x());
+        writeVarint(out, p.y());
+        writeSigned(out, p.score());
+        writeVarint(out, p.formsCollected());
+        writeVarint(out, p.formsRequired());
+        writeVarint(out, (p.active() ? PLAYER_ACTIVE : 0) | (p.finished() ? PLAYER_FINISHED : 0));
+        writeSigned(out, p.timeBankMs());
+    }
+
+    static GameState.PlayerSnapshot readPlayer(ByteBuffer in) {
+        int id = readInt(in);
+        int x = readInt(in);
+        int y = readInt(in);
+        int score = (int) readSigned(in);
+        int formsCollected = readInt(in);
+        int formsRequired = readInt(in);
+        int flags = readInt(in);
+        long timeBankMs = readSigned(in);
+        return new GameState.PlayerSnapshot(id, x, y, score, formsCollected, formsRequired,
+                (flags & PLAYER_ACTIVE) != 0, (flags & PLAYER_FINISHED) != 0, timeBankMs);
+    }
+}
@@ -0,0 +1,294 @@
+package net.simplehardware.engine.viewer;
+
+import net.simplehardware.engine.viewer.elements.CellSnapshot;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import static net.simplehardware.engine.viewer.ReplayFormat.*;
+
+/**
+ * Random access to a {@link ReplayFormat} replay.
+ * Opening reads only footer and index, each read inflates the chunks holding the wanted turns.
+ */
+public class ReplayReader implements Closeable {
+    private final FileChannel channel;
+    private final long indexOffset;
+    private final int frameCount;
+    private final int lastTurnNumber;
+    private final int keyframeInterval;
+    private final int width;
+    private final int height;
+    private final String mazeName;
+    private final long[] keyframeOffsets;
+
+    /**
+     * Decoded state of one frame
+     *
+     * @param index position of the frame in the replay, 0 for the initial state
+     */
+    public record Frame(int index, int turnNumber, Map<Integer, GameState.PlayerSnapshot> players,
+                        CellSnapshot[][] cells, Map<Integer, PlayerLog> playerLogs) {
+    }
+
+    public ReplayReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < MAGIC.length + FOOTER_SIZE) {
+                throw new IOException("Not a replay file: " + path);
+            }
+            ByteBuffer footer = read(size - FOOTER_SIZE, size);
+            indexOffset = footer.getLong();
+            byte[] magic = new byte[INDEX_MAGIC.length];
+            footer.get(magic);
+            if (!Arrays.equals(magic, INDEX_MAGIC) || indexOffset < MAGIC.length || indexOffset > size - FOOTER_SIZE) {
+                throw new IOException("Not a replay file: " + path);
+            }
+
+            ByteBuffer index = read(indexOffset, size - FOOTER_SIZE);
+            frameCount = readInt(index);
+            lastTurnNumber = readInt(index);
+            keyframeInterval = readInt(index);
+            width = readInt(index);
+            height = readInt(index);
+            mazeName = readString(index);
+            keyframeOffsets = new long[readInt(index)];
+            long offset = 0;
+            for (int i = 0; i < keyframeOffsets.length; i++) {
+                offset += readVarint(index);
+                keyframeOffsets[i] = offset;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getLastTurnNumber() {
+        return lastTurnNumber;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getMazeName() {
+        return mazeName;
+    }
+
+    public Frame read(int index) throws IOException {
+        List<Frame> frames = read(index, index + 1);
+        if (frames.isEmpty()) {
+            throw new IndexOutOfBoundsException("Frame " + index + " of " + frameCount);
+        }
+        return frames.getFirst();
+    }
+
+    /**
+     * Decode the frames from {@code from} inclusive to {@code to} exclusive, clamped to the replay.
+     * Only the chunks from the keyframe before {@code from} up to the keyframe after {@code to} are read.
+     */
+    public List<Frame> read(int from, int to) throws IOException {
+        from = Math.max(from, 0);
+        to = Math.min(to, frameCount);
+        List<Frame> frames = new ArrayList<>();
+        if (from >= to) {
+            return frames;
+        }
+
+        ByteBuffer in = readChunks(from, to);
+        Decoder decoder = new Decoder();
+        for (int i = from / keyframeInterval * keyframeInterval; i < to; i++) {
+            decoder.next(in, i);
+            if (i >= from) {
+                frames.add(decoder.frame(i));
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Write the frames from {@code from} inclusive to {@code to} exclusive as a {@link ReplayFormat} slice.
+     * The first frame is encoded as a keyframe, the ones after it are copied as stored.
+     *
+     * @return number of frames written
+     */
+    public int writeSlice(int from, int to, OutputStream out) throws IOException {
+        from = Math.clamp(from, 0, frameCount);
+        to = Math.clamp(to, from, frameCount);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        writeVarint(header, frameCount);
+        writeVarint(header, lastTurnNumber);
+        writeVarint(header, keyframeInterval);
+        writeVarint(header, width);
+        writeVarint(header, height);
+        writeString(header, mazeName);
+        writeVarint(header, from);
+        writeVarint(header, to - from);
+        header.writeTo(out);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        DeflaterOutputStream frames = new DeflaterOutputStream(out, deflater);
+        try {
+            if (from < to) {
+                ByteBuffer in = readChunks(from, to);
+                Decoder decoder = new Decoder();
+                for (int i = from / keyframeInterval * keyframeInterval; i <= from; i++) {
+                    decoder.next(in, i);
+                }
+                ByteArrayOutputStream keyframe = new ByteArrayOutputStream();
+                writeKeyframe(keyframe, decoder.turnNumber, decoder.players.values(), decoder.cells, decoder.logs);
+                keyframe.writeTo(frames);
+
+                int start = in.position();
+                for (int i = from + 1; i < to; i++) {
+                    decoder.next(in, i);
+                }
+                frames.write(in.array(), start, in.position() - start);
+            }
+            frames.finish();
+        } finally {
+            deflater.end();
+        }
+        return to - from;
+    }
+
+    /**
+     * Inflated frames from the keyframe before {@code from} up to the keyframe after {@code to}
+     */
+    private ByteBuffer readChunks(int from, int to) throws IOException {
+        int firstKeyframe = from / keyframeInterval;
+        int endKeyframe = (to - 1) / keyframeInterval + 1;
+        long end = endKeyframe < keyframeOffsets.length ? keyframeOffsets[endKeyframe] : indexOffset;
+        return inflate(read(keyframeOffsets[firstKeyframe], end));
+    }
+
+    /**
+     * Replay state, advanced one frame at a time
+     */
+    private class Decoder {
+        final CellSnapshot[][] cells = new CellSnapshot[width][height];
+        final Map<Integer, GameState.PlayerSnapshot> players = new HashMap<>();
+        final Map<Integer, PlayerLog> logs = new HashMap<>();
+        int turnNumber;
+
+        void next(ByteBuffer in, int index) throws IOException {
+            int type = in.get();
+            if (type == KEYFRAME) {
+                turnNumber = readInt(in);
+                players.clear();
+                readPlayers(in);
+                for (int x = 0; x < width; x++) {
+                    for (int y = 0; y < height; y++) {
+                        cells[x][y] = readCell(in, x, y);
+                    }
+                }
+                logs.clear();
+            } else if (type == DELTA) {
+                turnNumber += readInt(in);
+                readPlayers(in);
+                int changedCells = readInt(in);
+                for (int c = 0; c < changedCells; c++) {
+                    int x = readInt(in);
+                    int y = readInt(in);
+                    cells[x][y] = readCell(in, x, y);
+                }
+            } else {
+                throw new IOException("Corrupt replay frame " + index);
+            }
+            int changedLogs = readInt(in);
+            for (int l = 0; l < changedLogs; l++) {
+                logs.put(readInt(in), new PlayerLog(readString(in), readString(in)));
+            }
+        }
+
+        private void readPlayers(ByteBuffer in) {
+            int count = readInt(in);
+            for (int p = 0; p < count; p++) {
+                GameState.PlayerSnapshot player = readPlayer(in);
+                players.put(player.id(), player);
+            }
+        }
+
+        Frame frame(int index) {
+            CellSnapshot[][] grid = new CellSnapshot[width][];
+            for (int x = 0; x < width; x++) {
+                grid[x] = cells[x].clone();
+            }
+            return new Frame(index, turnNumber, Map.copyOf(players), grid, Map.copyOf(logs));
+        }
+    }
+
+    /**
+     * Inflate consecutive chunks, each one is a complete deflate stream
+     */
+    private static ByteBuffer inflate(ByteBuffer compressed) throws IOException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream(compressed.remaining() * 4);
+        byte[] buffer = new byte[8192];
+        Inflater inflater = new Inflater(true);
+        try {
+            while (compressed.hasRemaining()) {
+                inflater.reset();
+                inflater.setInput(compressed);
+                while (!inflater.finished()) {
+                    int length = inflater.inflate(buffer);
+                    if (length == 0 && inflater.needsInput()) {
+                        throw new IOException("Replay chunk is truncated");
+                    }
+                    frames.write(buffer, 0, length);
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt replay chunk", e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(frames.toByteArray());
+    }
+
+    private ByteBuffer read(long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new IOException("Replay file is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
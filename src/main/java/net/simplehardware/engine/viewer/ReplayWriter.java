@@ -0,0 +1,209 @@
+package net.simplehardware.engine.viewer;
+
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.viewer.elements.CellSnapshot;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static net.simplehardware.engine.viewer.ReplayFormat.*;
+
+/**
+ * Writes a game as a {@link ReplayFormat} replay while it runs, one turn at a time.
+ * Only the current cell grid and the frames since the last keyframe are kept in memory,
+ * the index is written on {@link #close()}.
+ */
+public class ReplayWriter implements GameEngine.TurnListener, Closeable {
+    private final String outputPath;
+    private final String mazeName;
+    private final int keyframeInterval;
+    private final OutputStream out;
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(4096);
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final byte[] deflated = new byte[8192];
+    private final List<Long> keyframeOffsets = new ArrayList<>();
+    private final List<CellSnapshot> changed = new ArrayList<>();
+
+    private long position;
+    private int frameCount;
+    private int lastTurnNumber;
+    private int width;
+    private int height;
+    private CellSnapshot[][] cells;
+    private Map<Integer, GameState.PlayerSnapshot> players = Map.of();
+    private Map<Integer, PlayerLog> logs = Map.of();
+    private IOException failure;
+    private boolean closed;
+
+    public ReplayWriter(String outputPath, String mazeName) throws IOException {
+        this(outputPath, mazeName, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    public ReplayWriter(String outputPath, String mazeName, int keyframeInterval) throws IOException {
+        this.outputPath = outputPath;
+        this.mazeName = mazeName;
+        this.keyframeInterval = keyframeInterval;
+        this.out = new BufferedOutputStream(new FileOutputStream(outputPath), 64 * 1024);
+    }
+
+    /**
+     * Write failures are kept and thrown by {@link #close()}, the game itself goes on.
+     * Turns of a game that is still being stopped after close are dropped.
+     */
+    @Override
+    public synchronized void onTurn(GameState state) {
+        if (failure != null || closed) {
+            return;
+        }
+        try {
+            writeTurn(state);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    public synchronized void writeTurn(GameState state) throws IOException {
+        changed.clear();
+        if (cells == null) {
+            cells = state.getCells();
+            width = cells.length;
+            height = width > 0 ? cells[0].length : 0;
+            writeHeader();
+            writeRaw();
+        } else {
+            for (CellSnapshot cell : state.getChangedCells()) {
+                if (!cell.equals(cells[cell.x()][cell.y()])) {
+                    cells[cell.x()][cell.y()] = cell;
+                    changed.add(cell);
+                }
+            }
+        }
+
+        if (frameCount % keyframeInterval == 0) {
+            writeChunk();
+            keyframeOffsets.add(position);
+            writeKeyframe(frame, state.getTurnNumber(), state.getPlayers().values(), cells, state.getPlayerLogs());
+        } else {
+            writeDelta(state);
+        }
+
+        frameCount++;
+        lastTurnNumber = state.getTurnNumber();
+        players = state.getPlayers();
+        logs = state.getPlayerLogs();
+    }
+
+    private void writeRaw() throws IOException {
+        frame.writeTo(out);
+        position += frame.size();
+        frame.reset();
+    }
+
+    /**
+     * Compress the frames since the last keyframe as one chunk
+     */
+    private void writeChunk() throws IOException {
+        if (frame.size() == 0) {
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(frame.toByteArray());
+        deflater.finish();
+        while (!deflater.finished()) {
+            int length = deflater.deflate(deflated);
+            out.write(deflated, 0, length);
+            position += length;
+        }
+        frame.reset();
+    }
+
+    private void writeHeader() {
+        frame.writeBytes(MAGIC);
+        writeVarint(frame, keyframeInterval);
+        writeVarint(frame, width);
+        writeVarint(frame, height);
+        writeString(frame, mazeName);
+    }
+
+    private void writeDelta(GameState state) {
+        frame.write(DELTA);
+        writeVarint(frame, state.getTurnNumber() - lastTurnNumber);
+
+        List<GameState.PlayerSnapshot> changedPlayers = new ArrayList<>();
+        for (GameState.PlayerSnapshot player : state.getPlayers().values()) {
+            if (!player.equals(players.get(player.id()))) {
+                changedPlayers.add(player);
+            }
+        }
+        writeVarint(frame, changedPlayers.size());
+        for (GameState.PlayerSnapshot player : changedPlayers) {
+            writePlayer(frame, player);
+        }
+
+        writeVarint(frame, changed.size());
+        for (CellSnapshot cell : changed) {
+            writeVarint(frame, cell.x());
+            writeVarint(frame, cell.y());
+            writeCell(frame, cell);
+        }
+
+        List<Map.Entry<Integer, PlayerLog>> changedLogs = new ArrayList<>();
+        for (Map.Entry<Integer, PlayerLog> entry : state.getPlayerLogs().entrySet()) {
+            if (!entry.getValue().equals(logs.get(entry.getKey()))) {
+                changedLogs.add(entry);
+            }
+        }
+        writeVarint(frame, changedLogs.size());
+        for (Map.Entry<Integer, PlayerLog> entry : changedLogs) {
+            writeLog(frame, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Write the index and footer and close the file
+     *
+     * @throws IOException if a turn or the index could not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (cells == null) {
+                writeHeader();
+                writeRaw();
+            }
+            writeChunk();
+            long indexOffset = position;
+            writeVarint(frame, frameCount);
+            writeVarint(frame, lastTurnNumber);
+            writeVarint(frame, keyframeInterval);
+            writeVarint(frame, width);
+            writeVarint(frame, height);
+            writeString(frame, mazeName);
+            writeVarint(frame, keyframeOffsets.size());
+            long previous = 0;
+            for (long offset : keyframeOffsets) {
+                writeVarint(frame, offset - previous);
+                previous = offset;
+            }
+            writeRaw();
+            new DataOutputStream(out).writeLong(indexOffset);
+            out.write(INDEX_MAGIC);
+            position += FOOTER_SIZE;
+        } finally {
+            deflater.end();
+        }
+        System.out.println("Game data exported to: " + outputPath + " (" + position + " bytes)");
+    }
+}
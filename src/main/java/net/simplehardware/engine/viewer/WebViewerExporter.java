@@ -1,26 +1,39 @@
 package net.simplehardware.engine.viewer;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import net.simplehardware.engine.viewer.elements.CellSnapshot;
 import net.simplehardware.engine.viewer.elements.GameState;
 import net.simplehardware.engine.viewer.elements.PlayerLog;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class to export game history to compact JSON format with delta
  * encoding
  */
 public class WebViewerExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int UNPACKED = -1;
+    // Indexed by cell code, filled on first use; racing threads just store equal strings
+    private static final String[] CELL_STRINGS = new String[1 << 14];
 
     /**
-     * Export game history to a compact JSON file with delta encoding
+     * Export game history to a compact JSON file with delta encoding.
+     * Turns are encoded and written one at a time, gzip compressed if the path ends with .gz.
      * 
      * @param gameHistory List of game states
      * @param mazeName    Name of the maze
@@ -29,52 +42,87 @@ public class WebViewerExporter {
      */
     public static void exportToJSON(List<GameState> gameHistory, String mazeName, String outputPath)
             throws IOException {
-        Map<String, Object> data = new HashMap<>();
-        data.put("n", mazeName);
-        data.put("h", convertGameHistoryWithDeltas(gameHistory));
-
         Gson gson = new Gson();
-        String json = gson.toJson(data);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath))) {
-            writer.write(json);
-            writer.flush();
+        FrameEncoder encoder = new FrameEncoder();
+        try (JsonWriter writer = new JsonWriter(
+                new OutputStreamWriter(openReplayOutput(outputPath), StandardCharsets.UTF_8))) {
+            writer.beginObject();
+            writer.name("n").value(mazeName);
+            writer.name("h").beginArray();
+            for (GameState state : gameHistory) {
+                Object frame = encoder.next(state);
+                gson.toJson(frame, frame.getClass(), writer);
+            }
+            writer.endArray();
+            writer.endObject();
         }
 
-        System.out.println("Game data exported to: " + outputPath + " (" + json.length() + " bytes)");
+        System.out.println("Game data exported to: " + outputPath + " (" + Files.size(Path.of(outputPath)) + " bytes)");
     }
 
-    private static List<Object> convertGameHistoryWithDeltas(List<GameState> gameHistory) {
-        List<Object> result = new ArrayList<>();
-
-        if (gameHistory.isEmpty()) {
-            return result;
+    /**
+     * Buffered output for a replay file, gzip compressed if the path ends with .gz
+     */
+    public static OutputStream openReplayOutput(String outputPath) throws IOException {
+        OutputStream file = new FileOutputStream(outputPath);
+        if (outputPath.endsWith(".gz")) {
+            return new BufferedOutputStream(new GZIPOutputStream(file, BUFFER_SIZE), BUFFER_SIZE);
         }
+        return new BufferedOutputStream(file, BUFFER_SIZE);
+    }
 
-        GameState firstState = gameHistory.get(0);
-        result.add(convertGameStateFull(firstState));
-
-        for (int i = 1; i < gameHistory.size(); i++) {
-            GameState prevState = gameHistory.get(i - 1);
-            GameState currState = gameHistory.get(i);
-            result.add(convertGameStateDelta(prevState, currState));
+    /**
+     * Turns states into history entries one at a time, in game order.
+     * The first state becomes a full entry, every later one a delta to its predecessor,
+     * so a running game can be encoded turn by turn.
+     */
+    public static class FrameEncoder {
+        private GameState previous;
+        // States only carry the cells touched in their turn, track the grid as packed cell codes
+        private int[][] cells;
+        // Strings of the cells that do not fit a code, by cellKey
+        private final Map<Integer, String> unpacked = new HashMap<>();
+
+        /**
+         * History entry of the next state, to be serialized as JSON
+         */
+        public Object next(GameState state) {
+            Object frame;
+            if (previous == null) {
+                CellSnapshot[][] grid = state.getCells();
+                cells = new int[grid.length][];
+                for (int x = 0; x < grid.length; x++) {
+                    cells[x] = new int[grid[x].length];
+                    for (int y = 0; y < grid[x].length; y++) {
+                        cells[x][y] = cellCode(grid[x][y]);
+                        if (cells[x][y] == UNPACKED) {
+                            unpacked.put(cellKey(x, y), cellString(UNPACKED, grid[x][y]));
+                        }
+                    }
+                }
+                frame = convertGameStateFull(state, grid);
+            } else {
+                frame = convertGameStateDelta(previous, state, cells, unpacked);
+            }
+            previous = state;
+            return frame;
         }
-
-        return result;
     }
 
-    private static Object[] convertGameStateFull(GameState state) {
+    private static Object[] convertGameStateFull(GameState state, CellSnapshot[][] cells) {
         // Full state: [turnNumber, width, height, players, cells, logs]
         return new Object[] {
                 state.getTurnNumber(),
                 state.getMazeWidth(),
                 state.getMazeHeight(),
                 convertPlayers(state.getPlayers()),
-                convertCells(state.getCells()),
+                convertCells(cells),
                 convertPlayerLogs(state.getPlayerLogs())
         };
     }
 
-    private static Object convertGameStateDelta(GameState prevState, GameState currState) {
+    private static Object convertGameStateDelta(GameState prevState, GameState currState, int[][] cells,
+            Map<Integer, String> unpacked) {
         // Delta state: [turnNumber, playerDeltas, cellDeltas, logDeltas]
         Map<String, Object> delta = new HashMap<>();
         delta.put("t", currState.getTurnNumber());
@@ -86,7 +134,7 @@ public class WebViewerExporter {
         }
 
         // Only include changed cells
-        List<Object[]> cellDeltas = getCellDeltas(prevState.getCells(), currState.getCells());
+        List<Object[]> cellDeltas = getCellDeltas(cells, unpacked, currState.getChangedCells());
         if (!cellDeltas.isEmpty()) {
             delta.put("c", cellDeltas);
         }
@@ -110,17 +158,8 @@ public class WebViewerExporter {
             GameState.PlayerSnapshot currPlayer = entry.getValue();
             GameState.PlayerSnapshot prevPlayer = prev.get(id);
 
-            if (prevPlayer == null || !playersEqual(prevPlayer, currPlayer)) {
-                deltas.put(id, new Object[] {
-                        currPlayer.id(),
-                        currPlayer.x(),
-                        currPlayer.y(),
-                        currPlayer.score(),
-                        currPlayer.formsCollected(),
-                        currPlayer.formsRequired(),
-                        currPlayer.active() ? 1 : 0,
-                        currPlayer.finished() ? 1 : 0
-                });
+            if (prevPlayer != currPlayer && (prevPlayer == null || !playersEqual(prevPlayer, currPlayer))) {
+                deltas.put(id, convertPlayer(currPlayer));
             }
         }
 
@@ -133,29 +172,48 @@ public class WebViewerExporter {
                 p1.score() == p2.score() &&
                 p1.formsCollected() == p2.formsCollected() &&
                 p1.active() == p2.active() &&
-                p1.finished() == p2.finished();
+                p1.finished() == p2.finished() &&
+                p1.timeBankMs() == p2.timeBankMs();
     }
 
-    private static List<Object[]> getCellDeltas(CellSnapshot[][] prev, CellSnapshot[][] curr) {
+    /**
+     * Cells that differ from the tracked grid, which is updated to them.
+     * Packed cells are compared by code, the rare unpacked ones by their string.
+     */
+    private static List<Object[]> getCellDeltas(int[][] cells, Map<Integer, String> unpacked,
+            List<CellSnapshot> changedCells) {
         List<Object[]> deltas = new ArrayList<>();
-        int width = curr.length;
-        int height = curr[0].length;
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                String prevCell = convertCell(prev[x][y]);
-                String currCell = convertCell(curr[x][y]);
+        for (CellSnapshot cell : changedCells) {
+            int x = cell.x();
+            int y = cell.y();
+            int code = cellCode(cell);
 
-                if (!prevCell.equals(currCell)) {
-                    // Delta format: [x, y, cellString]
-                    deltas.add(new Object[] { x, y, currCell });
+            boolean changed;
+            if (code == UNPACKED) {
+                String text = cellString(code, cell);
+                String previous = unpacked.put(cellKey(x, y), text);
+                changed = cells[x][y] != UNPACKED || !text.equals(previous);
+            } else {
+                if (cells[x][y] == UNPACKED) {
+                    unpacked.remove(cellKey(x, y));
                 }
+                changed = code != cells[x][y];
+            }
+            if (changed) {
+                // Delta format: [x, y, cellString]
+                deltas.add(new Object[] { x, y, cellString(code, cell) });
             }
+            cells[x][y] = code;
         }
 
         return deltas;
     }
 
+    private static int cellKey(int x, int y) {
+        return x << 16 | y;
+    }
+
     private static Map<Integer, String[]> getLogDeltas(
             Map<Integer, PlayerLog> prev,
             Map<Integer, PlayerLog> curr) {
@@ -186,22 +244,35 @@ public class WebViewerExporter {
         Map<Integer, Object[]> result = new HashMap<>();
 
         for (Map.Entry<Integer, GameState.PlayerSnapshot> entry : players.entrySet()) {
-            GameState.PlayerSnapshot p = entry.getValue();
-            result.put(entry.getKey(), new Object[] {
-                    p.id(),
-                    p.x(),
-                    p.y(),
-                    p.score(),
-                    p.formsCollected(),
-                    p.formsRequired(),
-                    p.active() ? 1 : 0,
-                    p.finished() ? 1 : 0
-            });
+            result.put(entry.getKey(), convertPlayer(entry.getValue()));
         }
 
         return result;
     }
 
+    /**
+     * Array format: [id, x, y, score, formsCollected, formsRequired, active, finished],
+     * followed by the remaining time bank in ms when the game runs with one
+     */
+    private static Object[] convertPlayer(GameState.PlayerSnapshot p) {
+        Object[] base = {
+                p.id(),
+                p.x(),
+                p.y(),
+                p.score(),
+                p.formsCollected(),
+                p.formsRequired(),
+                p.active() ? 1 : 0,
+                p.finished() ? 1 : 0
+        };
+        if (p.timeBankMs() < 0) {
+            return base;
+        }
+        Object[] withBank = Arrays.copyOf(base, base.length + 1);
+        withBank[base.length] = p.timeBankMs();
+        return withBank;
+    }
+
     private static String[][] convertCells(CellSnapshot[][] cells) {
         int width = cells.length;
         int height = cells[0].length;
@@ -209,13 +280,60 @@ public class WebViewerExporter {
 
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
-                result[x][y] = convertCell(cells[x][y]);
+                result[x][y] = cellString(cellCode(cells[x][y]), cells[x][y]);
             }
         }
 
         return result;
     }
 
+    /**
+     * Cell packed into an int: type in bits 0-1, sheet in bit 2, form letter A-Z as 1-26 in bits 3-7,
+     * form owner in bits 8-10 and finish player in bits 11-13, 0 meaning none.
+     * {@link #UNPACKED} for cells outside that range, they are compared and converted as strings.
+     */
+    private static int cellCode(CellSnapshot cell) {
+        int code = cell.type().ordinal();
+        if (cell.hasSheet()) {
+            code |= 1 << 2;
+        }
+        if (cell.form() != null) {
+            int letter = cell.form() - 'A' + 1;
+            if (letter < 1 || letter > 26) {
+                return UNPACKED;
+            }
+            code |= letter << 3;
+        }
+        if (cell.formOwner() != null) {
+            if (cell.formOwner() < 1 || cell.formOwner() > 7) {
+                return UNPACKED;
+            }
+            code |= cell.formOwner() << 8;
+        }
+        if (cell.finishPlayerId() != null) {
+            if (cell.finishPlayerId() < 1 || cell.finishPlayerId() > 7) {
+                return UNPACKED;
+            }
+            code |= cell.finishPlayerId() << 11;
+        }
+        return code;
+    }
+
+    /**
+     * Cell string of a code, each distinct string is built once and shared by all exports
+     */
+    private static String cellString(int code, CellSnapshot cell) {
+        if (code == UNPACKED) {
+            return convertCell(cell);
+        }
+        String value = CELL_STRINGS[code];
+        if (value == null) {
+            value = convertCell(cell);
+            CELL_STRINGS[code] = value;
+        }
+        return value;
+    }
+
     private static String convertCell(CellSnapshot cell) {
         StringBuilder sb = new StringBuilder();
 
@@ -4,6 +4,7 @@ import net.simplehardware.engine.cells.Cell;
 import net.simplehardware.engine.cells.FloorCell;
 import net.simplehardware.engine.cells.FinishCell;
 import net.simplehardware.engine.cells.WallCell;
+import net.simplehardware.engine.game.Maze;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -20,6 +21,23 @@ public record CellSnapshot(CellType type, int x, int y, Character form, Integer
         WALL, FLOOR, FINISH
     }
 
+    /**
+     * Snapshot straight from the maze arrays without going through a cell view
+     */
+    public static CellSnapshot of(Maze maze, int x, int y) {
+        return switch (maze.getType(x, y)) {
+            case Maze.TYPE_WALL -> new CellSnapshot(CellType.WALL, x, y, null, null, false, null);
+            case Maze.TYPE_FINISH -> new CellSnapshot(CellType.FINISH, x, y,
+                    null, null, false, maze.getFinishOwner(x, y));
+            default -> {
+                char form = maze.getForm(x, y);
+                yield new CellSnapshot(CellType.FLOOR, x, y,
+                        form != 0 ? form : null, form != 0 ? maze.getFormOwner(x, y) : null,
+                        maze.hasSheet(x, y), null);
+            }
+        };
+    }
+
     public static CellSnapshot fromCell(Cell cell) {
         if (cell instanceof WallCell) {
             return new CellSnapshot(CellType.WALL, cell.getX(), cell.getY(),
@@ -0,0 +1,140 @@
+package net.simplehardware.engine.viewer.elements;
+
+import net.simplehardware.engine.players.Player;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turn history of one game with structural sharing.
+ * States keep just the cells touched during their turn and reuse unchanged player snapshots.
+ * A full cell grid is kept for the first state and every {@link #KEYFRAME_INTERVAL} states
+ * after it, so memory grows with the number of actions instead of maze area times turns,
+ * and rebuilding the grid of any state replays at most that many turns.
+ */
+public class GameHistory implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 2L;
+    static final int KEYFRAME_INTERVAL = 64;
+
+    private final int mazeWidth;
+    private final int mazeHeight;
+    /** Grid of every KEYFRAME_INTERVAL-th state, starting with the first */
+    private final List<CellSnapshot[][]> keyframes = new ArrayList<>();
+    /** Grid of the last recorded state, updated in place */
+    private CellSnapshot[][] latestCells;
+    private final List<GameState> states = new ArrayList<>();
+
+    public GameHistory(int mazeWidth, int mazeHeight) {
+        this.mazeWidth = mazeWidth;
+        this.mazeHeight = mazeHeight;
+    }
+
+    /**
+     * Record the first state of the game with the full cell grid
+     */
+    public GameState addInitial(int turnNumber, List<Player> players, CellSnapshot[][] cells,
+            Map<Integer, PlayerLog> playerLogs) {
+        if (!states.isEmpty()) {
+            throw new IllegalStateException("Initial state already recorded");
+        }
+        this.latestCells = copy(cells);
+        keyframes.add(cells);
+        return add(turnNumber, players, List.of(), playerLogs);
+    }
+
+    /**
+     * Record a state that differs from the previous one only in the given cells
+     */
+    public GameState addTurn(int turnNumber, List<Player> players, List<CellSnapshot> changedCells,
+            Map<Integer, PlayerLog> playerLogs) {
+        if (states.isEmpty()) {
+            throw new IllegalStateException("Initial state not recorded yet");
+        }
+        return add(turnNumber, players, changedCells, playerLogs);
+    }
+
+    private GameState add(int turnNumber, List<Player> players, List<CellSnapshot> changedCells,
+            Map<Integer, PlayerLog> playerLogs) {
+        Map<Integer, GameState.PlayerSnapshot> previous = states.isEmpty()
+                ? Map.of()
+                : states.getLast().getPlayers();
+        GameState state = new GameState(this, states.size(), turnNumber,
+                snapshotPlayers(players, previous), changedCells, playerLogs);
+        states.add(state);
+        if (!changedCells.isEmpty()) {
+            apply(latestCells, state);
+        }
+        if (states.size() > 1 && state.index() % KEYFRAME_INTERVAL == 0) {
+            keyframes.add(copy(latestCells));
+        }
+        return state;
+    }
+
+    private static Map<Integer, GameState.PlayerSnapshot> snapshotPlayers(List<Player> players,
+            Map<Integer, GameState.PlayerSnapshot> previous) {
+        Map<Integer, GameState.PlayerSnapshot> snapshots = new HashMap<>();
+        for (Player player : players) {
+            GameState.PlayerSnapshot snapshot = new GameState.PlayerSnapshot(
+                    player.getId(),
+                    player.getX(),
+                    player.getY(),
+                    player.getScore(),
+                    player.getCollectedForms().size(),
+                    player.getAssignedForms().size(),
+                    player.isActive(),
+                    player.isFinished(),
+                    player.getTimeBankMs());
+            GameState.PlayerSnapshot last = previous.get(player.getId());
+            snapshots.put(player.getId(), snapshot.equals(last) ? last : snapshot);
+        }
+        return snapshots;
+    }
+
+    /**
+     * Rebuild the full cell grid as it was at the given state
+     */
+    public CellSnapshot[][] cellsAt(int index) {
+        int keyframe = index / KEYFRAME_INTERVAL;
+        CellSnapshot[][] cells = copy(keyframes.get(keyframe));
+        for (int i = keyframe * KEYFRAME_INTERVAL + 1; i <= index; i++) {
+            apply(cells, states.get(i));
+        }
+        return cells;
+    }
+
+    private static void apply(CellSnapshot[][] cells, GameState state) {
+        for (CellSnapshot cell : state.getChangedCells()) {
+            cells[cell.x()][cell.y()] = cell;
+        }
+    }
+
+    private static CellSnapshot[][] copy(CellSnapshot[][] cells) {
+        CellSnapshot[][] copy = new CellSnapshot[cells.length][];
+        for (int x = 0; x < cells.length; x++) {
+            copy[x] = cells[x].clone();
+        }
+        return copy;
+    }
+
+    public List<GameState> getStates() {
+        return Collections.unmodifiableList(states);
+    }
+
+    public boolean isEmpty() {
+        return states.isEmpty();
+    }
+
+    public int getMazeWidth() {
+        return mazeWidth;
+    }
+
+    public int getMazeHeight() {
+        return mazeHeight;
+    }
+}
@@ -1,8 +1,5 @@
 package net.simplehardware.engine.viewer.elements;
 
-import net.simplehardware.engine.cells.Cell;
-import net.simplehardware.engine.players.Player;
-
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.HashMap;
@@ -10,79 +7,77 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Snapshot of game state at a specific turn
+ * Snapshot of game state at a specific turn.
+ * Cells are stored as the changes of this turn, the full grid is rebuilt from the owning {@link GameHistory}.
  */
 public class GameState implements Serializable {
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
+    private final GameHistory history;
+    private final int index;
     private final int turnNumber;
-    private final int mazeWidth;
-    private final int mazeHeight;
     private final Map<Integer, PlayerSnapshot> players;
-    private final CellSnapshot[][] cells;
+    private final List<CellSnapshot> changedCells;
     private final Map<Integer, PlayerLog> playerLogs;
 
-    public GameState(int turnNumber, int mazeWidth, int mazeHeight,
-            List<Player> playerList, Cell[][] cellGrid, Map<Integer, PlayerLog> playerLogs) {
+    GameState(GameHistory history, int index, int turnNumber, Map<Integer, PlayerSnapshot> players,
+            List<CellSnapshot> changedCells, Map<Integer, PlayerLog> playerLogs) {
+        this.history = history;
+        this.index = index;
         this.turnNumber = turnNumber;
-        this.mazeWidth = mazeWidth;
-        this.mazeHeight = mazeHeight;
-        this.players = new HashMap<>();
-
-        // Snapshot players
-        for (Player player : playerList) {
-            players.put(player.getId(), new PlayerSnapshot(
-                    player.getId(),
-                    player.getX(),
-                    player.getY(),
-                    player.getScore(),
-                    player.getCollectedForms().size(),
-                    player.getAssignedForms().size(),
-                    player.isActive(),
-                    player.isFinished()));
-        }
-
-        // Snapshot cells
-        this.cells = new CellSnapshot[mazeWidth][mazeHeight];
-        for (int x = 0; x < mazeWidth; x++) {
-            for (int y = 0; y < mazeHeight; y++) {
-                cells[x][y] = CellSnapshot.fromCell(cellGrid[x][y]);
-            }
-        }
+        this.players = players;
+        this.changedCells = List.copyOf(changedCells);
 
         // Store player logs
         this.playerLogs = playerLogs != null ? new HashMap<>(playerLogs) : new HashMap<>();
     }
 
+    int index() {
+        return index;
+    }
+
     public int getTurnNumber() {
         return turnNumber;
     }
 
     public int getMazeWidth() {
-        return mazeWidth;
+        return history.getMazeWidth();
     }
 
     public int getMazeHeight() {
-        return mazeHeight;
+        return history.getMazeHeight();
     }
 
     public Map<Integer, PlayerSnapshot> getPlayers() {
         return players;
     }
 
+    /**
+     * Full cell grid at this turn, rebuilt from the nearest keyframe of the history on every call
+     */
     public CellSnapshot[][] getCells() {
-        return cells;
+        return history.cellsAt(index);
+    }
+
+    /**
+     * Cells that changed during the turn leading to this state
+     */
+    public List<CellSnapshot> getChangedCells() {
+        return changedCells;
     }
 
     public Map<Integer, PlayerLog> getPlayerLogs() {
         return playerLogs;
     }
 
+    /**
+     * @param timeBankMs remaining time bank in milliseconds, -1 if the game runs without one
+     */
     public record PlayerSnapshot(int id, int x, int y, int score, int formsCollected, int formsRequired, boolean active,
-                                 boolean finished) implements Serializable {
+                                 boolean finished, long timeBankMs) implements Serializable {
             @Serial
-            private static final long serialVersionUID = 1L;
+            private static final long serialVersionUID = 2L;
 
     }
 }
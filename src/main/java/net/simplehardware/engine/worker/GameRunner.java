@@ -0,0 +1,191 @@
+package net.simplehardware.engine.worker;
+
+import com.google.gson.Gson;
+import net.simplehardware.engine.core.BotProcessPool;
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.core.GameLog;
+import net.simplehardware.engine.core.LatencyHistogram;
+import net.simplehardware.engine.core.ProcessSupervisor;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.viewer.JsonReplayWriter;
+import net.simplehardware.engine.viewer.LiveGameFeed;
+import net.simplehardware.engine.viewer.ReplayFormat;
+import net.simplehardware.engine.viewer.ReplayWriter;
+import net.simplehardware.engine.viewer.elements.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs a {@link GameSpec} with local bot processes and writes its replay.
+ * Used by the server for local games and by remote workers.
+ */
+public class GameRunner {
+    private static final int CANCEL_GRACE_SECONDS = 5;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final BotProcessPool botPool;
+    private final ProcessSupervisor processSupervisor;
+    private final Gson gson = new Gson();
+
+    /**
+     * Result of a finished game, sent back to the server by remote workers
+     */
+    public static class Outcome {
+        public int stepsTaken;
+        public boolean timedOut;
+        /** Whether each player reached the finish, in player order */
+        public List<Boolean> finished = new ArrayList<>();
+        /** JSON response time summary of each player, null if its bot never started */
+        public List<String> latencyStats = new ArrayList<>();
+    }
+
+    public GameRunner(BotProcessPool botPool, ProcessSupervisor processSupervisor) {
+        this.botPool = botPool;
+        this.processSupervisor = processSupervisor;
+    }
+
+    /**
+     * Run a game until it ends or its time limit is reached.
+     * Turns are published to the spec's live feed as they happen, which is finished afterwards.
+     *
+     * @param playerJars local jar paths in player order
+     * @param replayPath file the viewer replay is written to during the game, a binary {@link ReplayFormat}
+     *                   replay if it has that extension, otherwise JSON
+     */
+    public Outcome run(GameSpec spec, List<String> playerJars, String replayPath) throws Exception {
+        LiveGameFeed feed = spec.liveFeed != null ? spec.liveFeed : new LiveGameFeed(spec.mazeName);
+        try {
+            return run(spec, playerJars, replayPath, feed);
+        } finally {
+            feed.finish();
+        }
+    }
+
+    private Outcome run(GameSpec spec, List<String> playerJars, String replayPath, LiveGameFeed feed)
+            throws Exception {
+        GameEngine.GameConfig config = new GameEngine.GameConfig();
+        config.debug = 0;
+        config.turnInfo = 0;
+        config.leagueLevel = spec.leagueLevel;
+        config.logging = spec.logging;
+        config.maxTurns = spec.maxTurns;
+        config.turnTimeoutMs = spec.turnTimeoutMs;
+        config.firstTurnTimeoutMs = spec.firstTurnTimeoutMs;
+        config.timeBankMs = spec.timeBankMs;
+        config.startupTimeoutMs = spec.startupTimeoutMs;
+        config.sheetsPerPlayer = 2;
+        config.botPool = botPool;
+        config.supervisor = processSupervisor;
+        config.simultaneousTurns = spec.simultaneousTurns ? 1 : 0;
+        config.botOutputLimit = spec.botOutputLimit;
+        config.botOutputSpillPath = spec.botOutputSpillPath;
+        config.botOutputSpillLimit = spec.botOutputSpillLimit;
+        config.log = new GameLog(spec.logName, System.out);
+
+        if (!ReplayFormat.isReplay(replayPath)) {
+            JsonReplayWriter replay = new JsonReplayWriter(replayPath, spec.mazeName);
+            try (replay) {
+                // Same entries the spectators get, encoded once
+                config.turnListener = state -> {
+                    byte[] frame = feed.encode(state);
+                    feed.appendFrame(frame);
+                    replay.writeFrame(frame);
+                };
+                return play(spec, playerJars, config);
+            }
+        }
+
+        ReplayWriter replay = new ReplayWriter(replayPath, spec.mazeName);
+        try (replay) {
+            config.turnListener = state -> {
+                feed.onTurn(state);
+                replay.onTurn(state);
+            };
+            return play(spec, playerJars, config);
+        }
+    }
+
+    private Outcome play(GameSpec spec, List<String> playerJars, GameEngine.GameConfig config) throws Exception {
+
+        Maze maze = spec.compiledMaze != null ? new Maze(spec.compiledMaze) : new Maze(spec.maze);
+        GameEngine engine = new GameEngine(maze, playerJars, config);
+        Outcome outcome = new Outcome();
+        try {
+            engine.initialize();
+
+            CountDownLatch engineDone = new CountDownLatch(1);
+            Future<?> gameFuture = executor.submit(() -> {
+                try {
+                    engine.runGame();
+                } finally {
+                    engineDone.countDown();
+                }
+            });
+
+            try {
+                gameFuture.get(spec.timeoutSeconds, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                stopGame(engine, gameFuture, engineDone);
+                outcome.timedOut = true;
+                System.out.println("Game " + spec.logName + " timed out after " + spec.timeoutSeconds + " seconds");
+            }
+        } finally {
+            engine.shutdown();
+        }
+
+        List<GameState> history = engine.getGameHistory();
+        if (history.isEmpty()) {
+            throw new IllegalStateException("No game history available");
+        }
+
+        GameState finalState = history.getLast();
+        outcome.stepsTaken = finalState.getTurnNumber();
+        for (int playerId = 1; playerId <= playerJars.size(); playerId++) {
+            GameState.PlayerSnapshot snapshot = finalState.getPlayers().get(playerId);
+            outcome.finished.add(snapshot != null && snapshot.finished() && !outcome.timedOut);
+
+            LatencyHistogram histogram = engine.getLatencies().get(playerId);
+            outcome.latencyStats.add(histogram != null ? gson.toJson(histogram.toMap()) : null);
+        }
+        return outcome;
+    }
+
+    /**
+     * Let a timed out game stop at its next turn boundary, interrupt it if it does not, and as a
+     * last resort kill its bots so blocked reads return. Returns once the engine thread has
+     * exited, so its history is complete and no longer changing.
+     *
+     * @throws IllegalStateException if the engine thread is still running after all of that
+     */
+    private static void stopGame(GameEngine engine, Future<?> gameFuture, CountDownLatch engineDone)
+            throws InterruptedException {
+        engine.cancel();
+        if (engineDone.await(CANCEL_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            return;
+        }
+        gameFuture.cancel(true);
+        if (engineDone.await(CANCEL_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            return;
+        }
+        engine.shutdown();
+        if (!engineDone.await(CANCEL_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Game engine thread did not stop");
+        }
+    }
+
+    /**
+     * Wait briefly for running games, then stop them
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package net.simplehardware.engine.worker;
+
+import net.simplehardware.engine.core.PlayerChannel;
+import net.simplehardware.engine.game.CompiledMaze;
+import net.simplehardware.engine.viewer.LiveGameFeed;
+import net.simplehardware.models.MazeInfoData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything needed to run one server game, without database access.
+ * The server builds it and either runs it itself or sends it to a remote worker as JSON.
+ */
+public class GameSpec {
+    /** Prefix of log lines and replay file names, e.g. u12 or lobby3 */
+    public String logName;
+    public String mazeName;
+    public MazeInfoData maze;
+    /** Compiled {@link #maze} shared with other games on the server, workers compile their own */
+    public transient CompiledMaze compiledMaze;
+    /** Bots in player order, a worker downloads their jars by ID */
+    public List<Integer> botIds = new ArrayList<>();
+    /** Jar paths on the server in player order, never sent to workers */
+    public transient List<String> playerJars = new ArrayList<>();
+    /** Feed spectators watch, a private one is used when null */
+    public transient LiveGameFeed liveFeed;
+
+    public int maxTurns = 5000;
+    public int leagueLevel = 5;
+    public int logging = 0;
+    public long turnTimeoutMs = 500;
+    public long firstTurnTimeoutMs = 1000;
+    public long timeBankMs = 0;
+    public long startupTimeoutMs = 5000;
+    public boolean simultaneousTurns = false;
+    /** Chars of stdout and of stderr kept in the replay per bot and turn */
+    public int botOutputLimit = PlayerChannel.DEFAULT_OUTPUT_LIMIT;
+    /** File the complete bot output is written to, null for none; only used for games run on the server */
+    public transient String botOutputSpillPath;
+    /** Chars written to the spill file before the rest is dropped, 0 for no limit */
+    public transient long botOutputSpillLimit;
+    /** Wall clock limit of the whole game */
+    public int timeoutSeconds = 60;
+}
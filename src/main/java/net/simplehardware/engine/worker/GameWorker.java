@@ -0,0 +1,216 @@
+package net.simplehardware.engine.worker;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import net.simplehardware.engine.core.BotProcessPool;
+import net.simplehardware.engine.core.ProcessSupervisor;
+import net.simplehardware.engine.viewer.LiveGameFeed;
+import net.simplehardware.engine.viewer.ReplayFormat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remote game worker. Pulls games from a server, runs them with local bot processes
+ * and uploads replay and outcome. Each slot runs one game at a time.
+ */
+public class GameWorker {
+    private static final String TOKEN_HEADER = "X-Worker-Token";
+    private static final int CLAIM_WAIT_SECONDS = 20;
+    private static final long RETRY_DELAY_MS = 5000;
+    private static final int LIVE_DRAIN_SECONDS = 30;
+
+    private final WorkerOptions options;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Gson gson = new Gson();
+    private final Path botDirectory;
+    private final BotProcessPool botPool;
+    private final GameRunner runner;
+    private volatile boolean running = true;
+
+    public GameWorker(WorkerOptions options) throws IOException {
+        this.options = options;
+        this.botDirectory = Files.createDirectories(Path.of(options.workDirectory, "bots"));
+        this.botPool = new BotProcessPool(options.slots);
+        this.runner = new GameRunner(botPool, new ProcessSupervisor());
+    }
+
+    /**
+     * Run all slots until the worker is stopped
+     */
+    public void run() throws InterruptedException {
+        botPool.start();
+        System.out.println("Worker " + options.name + " serving " + options.serverUrl + " with " + options.slots
+                + " slot(s)");
+
+        List<Thread> slots = new ArrayList<>();
+        for (int i = 0; i < options.slots; i++) {
+            Thread slot = new Thread(this::serve, "worker-slot-" + (i + 1));
+            slot.start();
+            slots.add(slot);
+        }
+        for (Thread slot : slots) {
+            slot.join();
+        }
+    }
+
+    private void serve() {
+        while (running) {
+            try {
+                JsonObject claim = claim();
+                if (claim != null) {
+                    play(claim.get("lease").getAsString(), gson.fromJson(claim.get("spec"), GameSpec.class));
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Worker error: " + e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for the next game, null if the server had none
+     */
+    private JsonObject claim() throws IOException, InterruptedException {
+        String url = options.serverUrl + "/api/worker/claim?wait=" + CLAIM_WAIT_SECONDS
+                + "&worker=" + URLEncoder.encode(options.name, StandardCharsets.UTF_8);
+        HttpResponse<String> response = http.send(request(url)
+                .timeout(Duration.ofSeconds(CLAIM_WAIT_SECONDS + 10))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 204) {
+            return null;
+        }
+        checkStatus(response, "claim");
+        return gson.fromJson(response.body(), JsonObject.class);
+    }
+
+    private void play(String lease, GameSpec spec) throws IOException, InterruptedException {
+        HttpResponse<String> confirm = http.send(request(leaseUrl(lease, "confirm"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        checkStatus(confirm, "lease confirmation");
+
+        System.out.println("Running game " + spec.logName + " on " + spec.mazeName);
+        Path replay = Files.createTempFile(Path.of(options.workDirectory), "replay", ReplayFormat.EXTENSION);
+        try {
+            // Spectators on the server watch the turns while the game runs here
+            spec.liveFeed = new LiveGameFeed(spec.mazeName);
+            CompletableFuture<HttpResponse<Void>> live = http.sendAsync(request(leaseUrl(lease, "live"))
+                    .PUT(HttpRequest.BodyPublishers.ofInputStream(spec.liveFeed::openStream))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+
+            GameRunner.Outcome outcome;
+            try {
+                outcome = runner.run(spec, fetchBots(lease, spec), replay.toString());
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                System.err.println("Game " + spec.logName + " failed: " + e.getMessage());
+                complete(lease, Map.of("error", String.valueOf(e.getMessage())));
+                return;
+            } finally {
+                awaitLiveUpload(live);
+            }
+
+            HttpResponse<String> upload = http.send(request(leaseUrl(lease, "replay"))
+                    .PUT(HttpRequest.BodyPublishers.ofFile(replay))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            checkStatus(upload, "replay upload");
+            complete(lease, Map.of("outcome", outcome));
+            System.out.println("Game " + spec.logName + " done after " + outcome.stepsTaken + " turns");
+        } finally {
+            Files.deleteIfExists(replay);
+        }
+    }
+
+    /**
+     * Let the live stream drain before the result is sent, it is not needed for the result itself
+     */
+    private static void awaitLiveUpload(CompletableFuture<HttpResponse<Void>> live) {
+        try {
+            live.get(LIVE_DRAIN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            live.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            live.cancel(true);
+            System.err.println("Live stream upload failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Local jar paths of all players, bots are downloaded once and kept by ID
+     */
+    private List<String> fetchBots(String lease, GameSpec spec) throws IOException, InterruptedException {
+        List<String> jars = new ArrayList<>();
+        for (int i = 0; i < spec.botIds.size(); i++) {
+            Path jar = botDirectory.resolve("bot_" + spec.botIds.get(i) + ".jar");
+            if (!Files.exists(jar)) {
+                Path download = Files.createTempFile(botDirectory, "bot", ".part");
+                HttpResponse<Path> response = http.send(request(leaseUrl(lease, "bots/" + i)).GET().build(),
+                        HttpResponse.BodyHandlers.ofFile(download));
+                if (response.statusCode() != 200) {
+                    Files.deleteIfExists(download);
+                    throw new IOException("Bot download failed with HTTP " + response.statusCode());
+                }
+                Files.move(download, jar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            jars.add(jar.toString());
+        }
+        return jars;
+    }
+
+    private void complete(String lease, Map<String, Object> completion) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request(leaseUrl(lease, "complete"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(new HashMap<>(completion))))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        checkStatus(response, "result upload");
+    }
+
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header(TOKEN_HEADER, options.token);
+    }
+
+    private String leaseUrl(String lease, String action) {
+        return options.serverUrl + "/api/worker/leases/" + lease + "/" + action;
+    }
+
+    private static void checkStatus(HttpResponse<?> response, String step) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IOException("Server rejected " + step + " with HTTP " + response.statusCode() + ": "
+                    + response.body());
+        }
+    }
+
+    /**
+     * Stop claiming games, running games are abandoned and handed out again by the server
+     */
+    public void shutdown() {
+        running = false;
+        runner.shutdown();
+        botPool.shutdown();
+    }
+}
@@ -0,0 +1,72 @@
+package net.simplehardware.engine.worker;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Command line options of a remote game worker
+ */
+public class WorkerOptions {
+    public String serverUrl;
+    public String token = System.getenv("MAZERUNNER_WORKER_TOKEN");
+    public String name = defaultName();
+    public int slots = 1;
+    public String workDirectory = "worker";
+
+    /**
+     * Parse the documented worker arguments
+     *
+     * @throws IllegalArgumentException if an option is unknown or malformed
+     */
+    public static WorkerOptions parse(String[] args) {
+        WorkerOptions options = new WorkerOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--worker" -> options.serverUrl = value(args, ++i, arg);
+                case "--token" -> options.token = value(args, ++i, arg);
+                case "--name" -> options.name = value(args, ++i, arg);
+                case "--slots" -> options.slots = intValue(args, ++i, arg);
+                case "--work-dir" -> options.workDirectory = value(args, ++i, arg);
+                default -> throw new IllegalArgumentException("Unknown worker option: " + arg);
+            }
+        }
+
+        if (options.token == null || options.token.isEmpty()) {
+            throw new IllegalArgumentException("No worker token given, use --token or MAZERUNNER_WORKER_TOKEN");
+        }
+        if (options.slots < 1) {
+            throw new IllegalArgumentException("--slots must be at least 1");
+        }
+        if (options.serverUrl.endsWith("/")) {
+            options.serverUrl = options.serverUrl.substring(0, options.serverUrl.length() - 1);
+        }
+        return options;
+    }
+
+    private static String defaultName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "worker";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int intValue(String[] args, int index, String option) {
+        String value = value(args, index, option);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+}
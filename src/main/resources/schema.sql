@@ -28,7 +28,8 @@ CREATE TABLE IF NOT EXISTS mazes (
     size INTEGER NOT NULL,
     difficulty TEXT NOT NULL CHECK(difficulty IN ('EASY', 'MEDIUM', 'HARD')),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    active BOOLEAN DEFAULT 1
+    active BOOLEAN DEFAULT 1,
+    min_steps_solved BOOLEAN DEFAULT 0
 );
 -- Game results table
 CREATE TABLE IF NOT EXISTS game_results (
@@ -40,6 +41,7 @@ CREATE TABLE IF NOT EXISTS game_results (
     score_percentage REAL NOT NULL,
     completed BOOLEAN NOT NULL,
     game_data_path TEXT,
+    latency_stats TEXT,
     played_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (bot_id) REFERENCES player_bots(id) ON DELETE CASCADE,
@@ -80,6 +82,24 @@ CREATE TABLE IF NOT EXISTS lobby_players (
 CREATE INDEX IF NOT EXISTS idx_lobbies_status ON lobbies(status);
 CREATE INDEX IF NOT EXISTS idx_lobbies_host ON lobbies(host_user_id);
 CREATE INDEX IF NOT EXISTS idx_lobby_players_user ON lobby_players(user_id);
+-- Game jobs, queued by the web API and run in the background
+CREATE TABLE IF NOT EXISTS game_jobs (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id INTEGER NOT NULL,
+    job_type TEXT NOT NULL CHECK(job_type IN ('SOLO', 'LOBBY')),
+    bot_id INTEGER,
+    maze_id INTEGER,
+    lobby_id INTEGER,
+    status TEXT NOT NULL DEFAULT 'QUEUED',
+    result TEXT,
+    error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_game_jobs_status ON game_jobs(status);
+CREATE INDEX IF NOT EXISTS idx_game_jobs_user ON game_jobs(user_id);
 -- Leaderboard view
 CREATE VIEW IF NOT EXISTS leaderboard AS
 SELECT u.id as user_id,
@@ -63,6 +63,31 @@ function updateSystemStatus(metrics) {
 
     const activeRequests = metrics.active_requests || 0;
     document.getElementById('activeRequests').textContent = activeRequests;
+
+    const threadCount = metrics.thread_count !== undefined
+        ? `${metrics.thread_count} (peak ${metrics.peak_thread_count})`
+        : 'N/A';
+    document.getElementById('threadCount').textContent = threadCount;
+
+    const botProcesses = metrics.bot_processes_live !== undefined
+        ? `${metrics.bot_processes_live} in ${metrics.running_games} games, ${metrics.bot_processes_leaked} leaked`
+        : 'N/A';
+    document.getElementById('botProcesses').textContent = botProcesses;
+
+    const queue = metrics.game_queue;
+    const gameQueue = queue
+        ? `${queue.running_bot_processes}/${queue.capacity} slots used, ${queue.queued_jobs} games waiting (${queue.queued_users} users)`
+        : 'N/A';
+
+    const workers = metrics.remote_workers;
+    document.getElementById('gameQueue').textContent = workers
+        ? `${gameQueue}; remote: ${workers.leased_games} running, ${workers.waiting_games} waiting for a worker, ${workers.idle_workers} idle workers`
+        : gameQueue;
+
+    const live = metrics.live_games;
+    document.getElementById('liveGames').textContent = live
+        ? `${live.live_games} games, ${live.spectators} spectators`
+        : 'N/A';
 }
 
 function updateDatabaseStats(stats) {
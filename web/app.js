@@ -119,6 +119,22 @@ function getAuthHeaders() {
     };
 }
 
+// Long-poll a queued game job until it is finished, resolves with the job
+async function waitForJob(jobId) {
+    while (true) {
+        const response = await fetch(`${API_BASE}/jobs/${jobId}?wait=25`, {
+            headers: getAuthHeaders()
+        });
+        const job = await response.json();
+        if (!response.ok) {
+            throw new Error(job.error || 'Failed to get game status');
+        }
+        if (job.status === 'DONE' || job.status === 'FAILED') {
+            return job;
+        }
+    }
+}
+
 // Global fetch wrapper to handle 401s
 const originalFetch = window.fetch;
 window.fetch = async function (...args) {
@@ -152,9 +152,24 @@ async function playGame() {
             headers: getAuthHeaders()
         });
 
-        const data = await response.json();
+        const queued = await response.json();
+        if (!response.ok || !queued.success) {
+            gameResult.className = 'game-result error show';
+            const retry = queued.retryAfter ? `. Try again in about ${queued.retryAfter} s.` : '';
+            gameResult.innerHTML = `<p>${queued.error || 'Failed to start game'}${retry}</p>`;
+            return;
+        }
 
-        if (response.ok && data.success) {
+        playButton.textContent = 'Waiting for game...';
+        gameResult.className = 'game-result show';
+        gameResult.innerHTML = `<a href="viewer.html?live=${queued.jobId}" target="_blank">Watch live</a>`;
+        const job = await waitForJob(queued.jobId);
+        const data = job.result;
+
+        if (job.status === 'FAILED') {
+            gameResult.className = 'game-result error show';
+            gameResult.innerHTML = `<p>Game execution failed: ${job.error}</p>`;
+        } else if (data && data.success) {
             gameResult.className = 'game-result success show';
             gameResult.innerHTML = `
                 <h4>Game Complete!</h4>
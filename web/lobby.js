@@ -217,6 +217,13 @@ async function updateLobbyRoom(lobbyId) {
                 });
             }
 
+            // Lobby members can follow the running game turn by turn
+            const watchLiveBtn = document.getElementById('watch-live-btn');
+            if (watchLiveBtn) {
+                watchLiveBtn.href = `viewer.html?lobby=${lobby.id}`;
+                watchLiveBtn.style.display = lobby.status === 'IN_PROGRESS' ? 'inline-block' : 'none';
+            }
+
             // Show start button only for host and when waiting
             if (startGameBtn) {
                 if (isHost && lobby.status === 'WAITING' && players.length >= 2) {
@@ -76,11 +76,40 @@ class GameViewer {
         });
     }
 
+    // Binary replays are decoded chunk by chunk, JSON replays and live games are held in gameHistory
+    stateCount() {
+        return this.replay ? this.replay.frameCount : this.gameHistory.length;
+    }
+
+    stateAt(index) {
+        return this.replay ? this.replay.stateAt(index) : this.gameHistory[index];
+    }
+
+    async loadBinaryReplay(replay) {
+        this.replay = replay;
+        this.gameHistory = [];
+        this.currentTurnIndex = 0;
+        this.mazeName = replay.mazeName || 'Unknown Maze';
+        await replay.load(0);
+
+        document.getElementById('maze-title').textContent = `Maze Runner - ${this.mazeName}`;
+
+        const slider = document.getElementById('timeline-slider');
+        slider.max = replay.frameCount - 1;
+        slider.value = 0;
+
+        const firstState = replay.stateAt(0);
+        this.setupCanvas(replay.width, replay.height);
+        this.createPlayerLogPanels(firstState.players);
+        this.updateDisplay();
+    }
+
     loadGameData(gameData) {
         // Parse compact format: {n: mazeName, h: history}
         const rawHistory = gameData.h || gameData.gameHistory;
         this.mazeName = gameData.n || gameData.mazeName || 'Unknown Maze';
 
+        this.replay = null;
         this.gameHistory = [];
         for (let i = 0; i < rawHistory.length; i++) {
             this.gameHistory.push(this.parseCompactState(rawHistory[i], i, this.gameHistory));
@@ -110,6 +139,54 @@ class GameViewer {
         this.updateDisplay();
     }
 
+    // Live games start empty and grow by one history entry per turn
+    beginLive(mazeName) {
+        this.mazeName = mazeName || 'Unknown Maze';
+        this.replay = null;
+        this.gameHistory = [];
+        this.currentTurnIndex = 0;
+        this.live = true;
+        document.getElementById('maze-title').textContent = `Maze Runner - ${this.mazeName} (live)`;
+    }
+
+    appendState(rawState) {
+        const index = this.gameHistory.length;
+        const following = this.currentTurnIndex >= index - 1;
+        this.gameHistory.push(this.parseCompactState(rawState, index, this.gameHistory));
+
+        if (index === 0) {
+            const firstState = this.gameHistory[0];
+            this.setupCanvas(firstState.mazeWidth, firstState.mazeHeight);
+            this.createPlayerLogPanels(firstState.players);
+        }
+
+        const slider = document.getElementById('timeline-slider');
+        slider.max = this.gameHistory.length - 1;
+
+        // Stay on the newest turn unless the user went back in time
+        if (following && !this.isPlaying) {
+            this.currentTurnIndex = index;
+            slider.value = index;
+        }
+        this.scheduleDisplay();
+    }
+
+    endLive() {
+        this.live = false;
+        document.getElementById('maze-title').textContent = `Maze Runner - ${this.mazeName}`;
+        this.scheduleDisplay();
+    }
+
+    // Turns can arrive faster than the screen refreshes, draw at most once per frame
+    scheduleDisplay() {
+        if (this.displayScheduled) return;
+        this.displayScheduled = true;
+        requestAnimationFrame(() => {
+            this.displayScheduled = false;
+            this.updateDisplay();
+        });
+    }
+
     parseCompactState(state, index, allStates) {
         // Check if already in expanded format (old format)
         if (state.turnNumber !== undefined) {
@@ -150,17 +227,7 @@ class GameViewer {
         // Apply player deltas
         if (delta.p) {
             for (const [id, playerArray] of Object.entries(delta.p)) {
-                const [playerId, x, y, score, formsCollected, formsRequired, active, finished] = playerArray;
-                newState.players[id] = {
-                    id: playerId,
-                    x,
-                    y,
-                    score,
-                    formsCollected,
-                    formsRequired,
-                    active: active === 1,
-                    finished: finished === 1
-                };
+                newState.players[id] = this.parseCompactPlayer(playerArray);
             }
         }
 
@@ -188,22 +255,27 @@ class GameViewer {
     parseCompactPlayers(players) {
         const result = {};
         for (const [id, playerArray] of Object.entries(players)) {
-            // Array format: [id, x, y, score, formsCollected, formsRequired, active, finished]
-            const [playerId, x, y, score, formsCollected, formsRequired, active, finished] = playerArray;
-            result[id] = {
-                id: playerId,
-                x,
-                y,
-                score,
-                formsCollected,
-                formsRequired,
-                active: active === 1,
-                finished: finished === 1
-            };
+            result[id] = this.parseCompactPlayer(playerArray);
         }
         return result;
     }
 
+    parseCompactPlayer(playerArray) {
+        // Array format: [id, x, y, score, formsCollected, formsRequired, active, finished, timeBankMs?]
+        const [playerId, x, y, score, formsCollected, formsRequired, active, finished, timeBankMs] = playerArray;
+        return {
+            id: playerId,
+            x,
+            y,
+            score,
+            formsCollected,
+            formsRequired,
+            active: active === 1,
+            finished: finished === 1,
+            timeBankMs: timeBankMs ?? null
+        };
+    }
+
     parseCompactCells(cells) {
         const width = cells.length;
         const height = cells[0].length;
@@ -326,12 +398,22 @@ class GameViewer {
     }
 
     updateDisplay() {
-        if (this.gameHistory.length === 0) return;
+        if (this.stateCount() === 0) return;
 
-        const state = this.gameHistory[this.currentTurnIndex];
+        const state = this.stateAt(this.currentTurnIndex);
+        if (!state) {
+            // Chunk not downloaded yet, draw once it is
+            this.replay.load(this.currentTurnIndex).then(() => this.scheduleDisplay());
+            return;
+        }
+        if (this.replay) {
+            this.replay.prefetch(this.currentTurnIndex);
+        }
 
         // Update turn info
-        const lastTurn = this.gameHistory[this.gameHistory.length - 1].turnNumber;
+        const lastTurn = this.replay
+            ? this.replay.lastTurnNumber
+            : this.gameHistory[this.gameHistory.length - 1].turnNumber;
         document.getElementById('turn-info').textContent = `Turn ${state.turnNumber} / ${lastTurn}`;
         document.getElementById('current-turn').textContent = `Turn ${state.turnNumber}`;
         document.getElementById('total-turns').textContent = `/ ${lastTurn}`;
@@ -463,6 +545,7 @@ class GameViewer {
                 <div class="player-name">Player ${player.id}</div>
                 <div class="stat">Score: ${player.score}</div>
                 <div class="stat">Forms: ${player.formsCollected}/${player.formsRequired}</div>
+                ${player.timeBankMs !== null && player.timeBankMs !== undefined ? `<div class="stat">Time bank: ${player.timeBankMs} ms</div>` : ''}
                 <div class="status ${statusClass}">${statusText}</div>
             `;
 
@@ -500,7 +583,9 @@ class GameViewer {
         document.getElementById('play-pause-btn').textContent = '⏸';
 
         this.playbackInterval = setInterval(() => {
-            if (this.currentTurnIndex < this.gameHistory.length - 1) {
+            if (this.currentTurnIndex < this.stateCount() - 1) {
+                // Wait for the next chunk instead of skipping turns
+                if (!this.stateAt(this.currentTurnIndex + 1)) return;
                 this.currentTurnIndex++;
                 document.getElementById('timeline-slider').value = this.currentTurnIndex;
                 this.updateDisplay();
@@ -529,7 +614,7 @@ class GameViewer {
     }
 
     nextTurn() {
-        if (this.currentTurnIndex < this.gameHistory.length - 1) {
+        if (this.currentTurnIndex < this.stateCount() - 1) {
             this.currentTurnIndex++;
             document.getElementById('timeline-slider').value = this.currentTurnIndex;
             this.updateDisplay();
@@ -545,11 +630,301 @@ class GameViewer {
     }
 }
 
+// Binary replay (see ReplayFormat.java) loaded in slices of one keyframe interval from /api/game/turns.
+// Every slice starts with a keyframe, so the first turn shows after a single request.
+class BinaryReplay {
+    static MAX_CHUNKS = 8;
+    static CELL_TYPES = ['WALL', 'FLOOR', 'FINISH'];
+
+    constructor(url, header) {
+        this.url = url;
+        this.frameCount = header.frameCount;
+        this.lastTurnNumber = header.lastTurnNumber;
+        this.keyframeInterval = header.keyframeInterval;
+        this.width = header.width;
+        this.height = header.height;
+        this.mazeName = header.mazeName;
+        this.chunks = new Map();
+        this.pending = new Map();
+    }
+
+    // Resolves null if the game was stored as a JSON replay
+    static async open(url) {
+        const slice = await BinaryReplay.fetchSlice(url, 0);
+        if (!slice) return null;
+        const replay = new BinaryReplay(url, slice.header);
+        replay.addChunk(0, slice);
+        return replay;
+    }
+
+    static async fetchSlice(url, from) {
+        const response = await fetch(`${url}&from=${from}`);
+        if (response.status === 409) return null;
+        if (!response.ok) {
+            const error = await response.json().catch(() => ({}));
+            throw new Error(error.error || 'Replay slice not available');
+        }
+
+        const bytes = new Uint8Array(await response.arrayBuffer());
+        const reader = new ReplayBytes(bytes);
+        const header = {
+            frameCount: reader.varint(),
+            lastTurnNumber: reader.varint(),
+            keyframeInterval: reader.varint(),
+            width: reader.varint(),
+            height: reader.varint(),
+            mazeName: reader.string(),
+            from: reader.varint(),
+            count: reader.varint()
+        };
+        const frames = new ReplayBytes(await BinaryReplay.inflate(bytes.subarray(reader.pos)));
+        return { header, frames };
+    }
+
+    // The frames of a slice are one raw deflate stream
+    static inflate(bytes) {
+        const stream = new Blob([bytes]).stream().pipeThrough(new DecompressionStream('deflate-raw'));
+        return new Response(stream).arrayBuffer();
+    }
+
+    stateAt(index) {
+        const chunk = this.chunks.get(Math.floor(index / this.keyframeInterval));
+        return chunk ? chunk[index % this.keyframeInterval] : undefined;
+    }
+
+    // Download and decode the slice holding a frame, resolves once stateAt(index) is available
+    load(index) {
+        const chunkIndex = Math.floor(index / this.keyframeInterval);
+        if (this.chunks.has(chunkIndex)) return Promise.resolve();
+        if (!this.pending.has(chunkIndex)) {
+            const loading = BinaryReplay.fetchSlice(this.url, chunkIndex * this.keyframeInterval)
+                .then(slice => this.addChunk(chunkIndex, slice))
+                .finally(() => this.pending.delete(chunkIndex));
+            this.pending.set(chunkIndex, loading);
+        }
+        return this.pending.get(chunkIndex);
+    }
+
+    addChunk(chunkIndex, slice) {
+        this.chunks.set(chunkIndex, this.decodeFrames(slice.frames, slice.header.count));
+        // Keep memory flat on long games, slices are cheap to fetch again
+        while (this.chunks.size > BinaryReplay.MAX_CHUNKS) {
+            this.chunks.delete(this.chunks.keys().next().value);
+        }
+    }
+
+    // Fetch the following chunk in the background once playback is halfway through the current one
+    prefetch(index) {
+        if (index % this.keyframeInterval >= this.keyframeInterval / 2) {
+            const next = (Math.floor(index / this.keyframeInterval) + 1) * this.keyframeInterval;
+            if (next < this.frameCount) {
+                this.load(next).catch(error => console.error('Prefetch failed:', error));
+            }
+        }
+    }
+
+    decodeFrames(reader, count) {
+        const states = [];
+        let state = null;
+        for (let i = 0; i < count; i++) {
+            state = reader.byte() === 0 ? this.decodeKeyframe(reader) : this.decodeDelta(reader, state);
+            states.push(state);
+        }
+        return states;
+    }
+
+    decodeKeyframe(reader) {
+        const turnNumber = reader.varint();
+        const players = {};
+        this.readPlayers(reader, players);
+        const cells = [];
+        for (let x = 0; x < this.width; x++) {
+            cells[x] = [];
+            for (let y = 0; y < this.height; y++) {
+                cells[x][y] = this.readCell(reader, x, y);
+            }
+        }
+        const playerLogs = {};
+        this.readLogs(reader, playerLogs);
+        return { turnNumber, mazeWidth: this.width, mazeHeight: this.height, players, cells, playerLogs };
+    }
+
+    // Unchanged players, cell columns and logs are shared with the previous state
+    decodeDelta(reader, prevState) {
+        const turnNumber = prevState.turnNumber + reader.varint();
+        const players = { ...prevState.players };
+        this.readPlayers(reader, players);
+
+        const cells = [...prevState.cells];
+        const copied = new Set();
+        const changedCells = reader.varint();
+        for (let i = 0; i < changedCells; i++) {
+            const x = reader.varint();
+            const y = reader.varint();
+            if (!copied.has(x)) {
+                cells[x] = [...cells[x]];
+                copied.add(x);
+            }
+            cells[x][y] = this.readCell(reader, x, y);
+        }
+
+        const playerLogs = { ...prevState.playerLogs };
+        this.readLogs(reader, playerLogs);
+        return { turnNumber, mazeWidth: this.width, mazeHeight: this.height, players, cells, playerLogs };
+    }
+
+    readPlayers(reader, players) {
+        const count = reader.varint();
+        for (let i = 0; i < count; i++) {
+            const id = reader.varint();
+            const x = reader.varint();
+            const y = reader.varint();
+            const score = reader.signed();
+            const formsCollected = reader.varint();
+            const formsRequired = reader.varint();
+            const flags = reader.varint();
+            const timeBankMs = reader.signed();
+            players[id] = {
+                id, x, y, score, formsCollected, formsRequired,
+                active: (flags & 1) !== 0,
+                finished: (flags & 2) !== 0,
+                timeBankMs: timeBankMs < 0 ? null : timeBankMs
+            };
+        }
+    }
+
+    readCell(reader, x, y) {
+        const header = reader.varint();
+        return {
+            type: BinaryReplay.CELL_TYPES[header & 3],
+            x,
+            y,
+            form: header & 8 ? String.fromCharCode(reader.varint()) : null,
+            formOwner: header & 16 ? reader.varint() : null,
+            hasSheet: (header & 4) !== 0,
+            finishPlayerId: header & 32 ? reader.varint() : null
+        };
+    }
+
+    readLogs(reader, playerLogs) {
+        const count = reader.varint();
+        for (let i = 0; i < count; i++) {
+            const id = reader.varint();
+            const stdout = reader.string();
+            const stderr = reader.string();
+            playerLogs[id] = { stdout, stderr };
+        }
+    }
+}
+
+class ReplayBytes {
+    static textDecoder = new TextDecoder();
+
+    constructor(buffer) {
+        this.bytes = new Uint8Array(buffer);
+        this.pos = 0;
+    }
+
+    byte() {
+        return this.bytes[this.pos++];
+    }
+
+    // Unsigned LEB128, multiplied instead of shifted so values above 2^31 stay exact
+    varint() {
+        let value = 0;
+        let scale = 1;
+        let b;
+        do {
+            b = this.bytes[this.pos++];
+            value += (b & 0x7f) * scale;
+            scale *= 128;
+        } while (b & 0x80);
+        return value;
+    }
+
+    signed() {
+        const value = this.varint();
+        return value % 2 === 0 ? value / 2 : -(value + 1) / 2;
+    }
+
+    string() {
+        const length = this.varint();
+        const value = ReplayBytes.textDecoder.decode(this.bytes.subarray(this.pos, this.pos + length));
+        this.pos += length;
+        return value;
+    }
+}
+
 const viewer = new GameViewer();
 
 function loadGameFromJSON(jsonData) {
     viewer.loadGameData(jsonData);
 }
 
+// Load a stored game, binary replays slice by slice, JSON replays whole
+async function loadReplay(apiBase, gameId) {
+    const replay = await BinaryReplay.open(`${apiBase}/game/turns?id=${gameId}`);
+    if (replay) {
+        await viewer.loadBinaryReplay(replay);
+        return;
+    }
+
+    const response = await fetch(`${apiBase}/game/file?id=${gameId}`);
+    if (!response.ok) {
+        throw new Error('Game data not found');
+    }
+    viewer.loadGameData(await response.json());
+}
+
+// Follow a running game streamed as Server-Sent Events, resolves false if it is not running
+async function streamLiveGame(url) {
+    const response = await fetch(url);
+    if (response.status === 404) {
+        return false;
+    }
+    if (!response.ok) {
+        throw new Error('Live game stream failed');
+    }
+
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    while (true) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+            handleLiveEvent(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+        }
+    }
+    return true;
+}
+
+function handleLiveEvent(text) {
+    let type = 'message';
+    let data = '';
+    for (const line of text.split('\n')) {
+        if (line.startsWith('event: ')) {
+            type = line.slice(7);
+        } else if (line.startsWith('data: ')) {
+            data += line.slice(6);
+        }
+    }
+    if (!data) return; // heartbeat
+
+    if (type === 'start') {
+        viewer.beginLive(JSON.parse(data).n);
+    } else if (type === 'end') {
+        viewer.endLive();
+    } else {
+        viewer.appendState(JSON.parse(data));
+    }
+}
+
 window.gameViewer = viewer;
 window.loadGameFromJSON = loadGameFromJSON;
+window.loadReplay = loadReplay;
+window.streamLiveGame = streamLiveGame;